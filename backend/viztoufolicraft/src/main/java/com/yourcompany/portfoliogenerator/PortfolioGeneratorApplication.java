@@ -2,8 +2,10 @@ package com.yourcompany.portfoliogenerator;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PortfolioGeneratorApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,64 @@
+package com.yourcompany.portfoliogenerator.config;
+
+import com.yourcompany.portfoliogenerator.service.GitHubRateLimitScheduler;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The one WebClient used for the GitHub API. Connections are pooled and kept alive between
+ * calls; timeouts, credentials and the user agent come from {@link IntegrationConfig}. Every
+ * response passes through {@link GitHubRateLimitScheduler} to track the rate limit.
+ */
+@Configuration
+public class GitHubClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider gitHubConnectionProvider(IntegrationConfig integrationConfig) {
+        IntegrationConfig.GitHub github = integrationConfig.getGithub();
+        return ConnectionProvider.builder("github")
+                .maxConnections(github.getMaxConnections())
+                .pendingAcquireTimeout(Duration.ofMillis(github.getTimeout()))
+                .maxIdleTime(Duration.ofMillis(github.getMaxIdleTime()))
+                .evictInBackground(Duration.ofSeconds(30))
+                .build();
+    }
+
+    @Bean
+    public WebClient gitHubWebClient(WebClient.Builder webClientBuilder, IntegrationConfig integrationConfig,
+                                     ConnectionProvider gitHubConnectionProvider,
+                                     GitHubRateLimitScheduler gitHubRateLimitScheduler) {
+        IntegrationConfig.GitHub github = integrationConfig.getGithub();
+
+        HttpClient httpClient = HttpClient.create(gitHubConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, github.getConnectTimeout())
+                .responseTimeout(Duration.ofMillis(github.getTimeout()))
+                .doOnConnected(connection -> connection.addHandlerLast(
+                        new ReadTimeoutHandler(github.getTimeout(), TimeUnit.MILLISECONDS)))
+                .compress(true);
+
+        // Cloned so the shared builder other services use stays untouched
+        WebClient.Builder builder = webClientBuilder.clone()
+                .baseUrl(github.getApiUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader(HttpHeaders.ACCEPT, "application/vnd.github+json")
+                .defaultHeader(HttpHeaders.USER_AGENT, github.getUserAgent())
+                .filter(gitHubRateLimitScheduler.filter());
+
+        if (StringUtils.hasText(github.getToken())) {
+            builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + github.getToken());
+        }
+
+        return builder.build();
+    }
+}
@@ -20,8 +20,21 @@ public class IntegrationConfig {
         private String apiUrl = "https://api.github.com";
         private String token; // GitHub Personal Access Token (optional, for higher rate limits)
         private int timeout = 5000; // 5 seconds
+        private int connectTimeout = 2000; // 2 seconds
         private int retryAttempts = 3;
         private String userAgent = "Portfolio-Generator/1.0";
+        private int maxConnections = 20;
+        private long maxIdleTime = 30000; // 30 seconds
+        private int etagCacheSize = 2000; // URLs remembered for conditional requests
+        private int pageConcurrency = 4; // repository pages fetched at once
+        private int maxRepositoryPages = 30; // 100 repositories per page
+        private int topRepositories = 10;
+        private long snapshotTtl = 600000; // 10 minutes before a profile is refreshed
+        private int snapshotCacheSize = 1000; // profiles kept in memory
+        private long snapshotRetryDelay = 300000; // 5 minutes before a failed refresh is tried again
+        private int rateLimitReserve = 100; // calls held back from background refreshes
+        private long rateLimitMaxWait = 30000; // 30 seconds an interactive call waits for budget
+        private long rateLimitBackgroundMaxWait = 300000; // 5 minutes a background refresh waits
     }
     
     @Getter
@@ -1,7 +1,10 @@
 package com.yourcompany.portfoliogenerator.config;
 
+import com.yourcompany.portfoliogenerator.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,21 +17,39 @@ import java.util.Map;
 import java.util.function.Function;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class JwtUtil {
     
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+    
+    private final VerifiedTokenCache verifiedTokenCache;
+    
     @Value("${jwt.secret:mySecretKey}")
     private String secret;
     
     @Value("${jwt.expiration:86400}")
     private Long expiration;
     
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // Both are immutable and thread-safe, build them once
+    private Key signingKey;
+    private JwtParser parser;
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
     
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(ROLE_CLAIM, user.getRole().name());
+        }
         return createToken(claims, userDetails.getUsername());
     }
     
@@ -38,10 +59,33 @@ public class JwtUtil {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration * 1000))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
+    /**
+     * Verifies the signature and expiry once and returns the claims, or null when the token
+     * is not acceptable.
+     */
+    public Claims parseVerified(String token) {
+        Claims cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            verifiedTokenCache.put(token, claims);
+            return claims;
+        } catch (ExpiredJwtException e) {
+            log.debug("Rejected expired JWT for subject {}", e.getClaims().getSubject());
+            return null;
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Rejected invalid JWT: {}", e.getMessage());
+            return null;
+        }
+    }
+    
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -57,28 +101,16 @@ public class JwtUtil {
     
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return parser.parseClaimsJws(token).getBody();
         } catch (JwtException e) {
             log.error("JWT parsing error: ", e);
             throw e;
         }
     }
     
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-    
     public Boolean validateToken(String token, UserDetails userDetails) {
-        try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-        } catch (JwtException e) {
-            log.error("Token validation failed: ", e);
-            return false;
-        }
+        // The parser already rejects expired tokens
+        Claims claims = parseVerified(token);
+        return claims != null && claims.getSubject().equals(userDetails.getUsername());
     }
 }
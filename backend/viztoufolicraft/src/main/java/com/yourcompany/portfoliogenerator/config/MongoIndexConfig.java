@@ -0,0 +1,53 @@
+package com.yourcompany.portfoliogenerator.config;
+
+import com.yourcompany.portfoliogenerator.model.ActivityRollup;
+import com.yourcompany.portfoliogenerator.model.GitHubSnapshot;
+import com.yourcompany.portfoliogenerator.model.UserTemplate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+
+import java.util.List;
+
+/**
+ * Creates the indexes of the entities listed here from their annotations. Index auto-creation
+ * stays off, since it would also build every older annotated index and the unique ones fail on
+ * rows that already break them. An index that cannot be built is logged and startup goes on
+ * without it.
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class MongoIndexConfig {
+
+    // Deployed templates by URL, and the TTLs that age out rollup buckets and GitHub snapshots
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(
+            UserTemplate.class,
+            ActivityRollup.class,
+            GitHubSnapshot.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Bean
+    public CommandLineRunner createIndexes() {
+        return args -> {
+            IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+            for (Class<?> entity : INDEXED_ENTITIES) {
+                for (IndexDefinition index : resolver.resolveIndexFor(entity)) {
+                    try {
+                        mongoTemplate.indexOps(entity).ensureIndex(index);
+                    } catch (Exception e) {
+                        // A unique index over duplicates, say; the rows must be fixed by hand first
+                        log.error("Failed to create index {} on {}: {}",
+                                index.getIndexKeys(), entity.getSimpleName(), e.getMessage(), e);
+                    }
+                }
+            }
+        };
+    }
+}
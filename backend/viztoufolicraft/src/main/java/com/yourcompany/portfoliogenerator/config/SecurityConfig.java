@@ -41,6 +41,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/public/**").permitAll()
                         .requestMatchers("/portfolio/**").permitAll()
+                        .requestMatchers("/sites/**").permitAll()
                         .requestMatchers("/api/templates").permitAll()
                         .requestMatchers("/api/templates/featured").permitAll()
                         .requestMatchers("/api/templates/types").permitAll()
@@ -48,6 +49,8 @@ public class SecurityConfig {
                         .requestMatchers("/api/templates/search").permitAll()
                         .requestMatchers("/api/templates/{id}").permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
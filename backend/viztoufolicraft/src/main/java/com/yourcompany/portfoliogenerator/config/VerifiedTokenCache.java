@@ -0,0 +1,80 @@
+package com.yourcompany.portfoliogenerator.config;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Claims of already verified bearer tokens, so the same token sent on every API call is not
+ * HMAC-checked and parsed again. Keyed by the exact token string, entries die at the token's
+ * own expiry. Reads are a plain concurrent-map lookup. Only the signature check is cached:
+ * the user behind the token is resolved on every request, so disabling an account or changing
+ * its role takes effect without touching this cache.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${app.security.token-cache.max-entries:50000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("jwt.verification.cache")
+                .tag("result", "hit")
+                .description("Bearer tokens served from the verified-claims cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("jwt.verification.cache")
+                .tag("result", "miss")
+                .description("Bearer tokens that needed full signature verification")
+                .register(meterRegistry);
+        Gauge.builder("jwt.verification.cache.size", entries, Map::size)
+                .register(meterRegistry);
+    }
+
+    public Claims get(String token) {
+        VerifiedToken cached = entries.get(token);
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        if (cached.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(token, cached);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached.claims;
+    }
+
+    public void put(String token, Claims claims) {
+        if (claims.getExpiration() == null) {
+            // Never cache a token that does not expire on its own
+            return;
+        }
+
+        if (entries.size() >= maxEntries) {
+            purgeExpired();
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(token, new VerifiedToken(claims, claims.getExpiration().getTime()));
+    }
+
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(token -> token.expiresAt <= now);
+    }
+
+    private record VerifiedToken(Claims claims, long expiresAt) {
+    }
+}
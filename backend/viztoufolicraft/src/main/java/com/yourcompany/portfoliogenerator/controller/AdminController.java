@@ -13,10 +13,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -25,6 +32,8 @@ import java.util.List;
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
     
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    
     private final AdminService adminService;
     
     @GetMapping("/dashboard")
@@ -146,46 +155,46 @@ public class AdminController {
     }
     
     @GetMapping("/export/users")
-    public ResponseEntity<byte[]> exportUsers() {
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "false") boolean gzip) {
         log.info("Exporting users to CSV");
-        byte[] csvData = adminService.exportUsersCsv();
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType("text/csv"));
-        headers.setContentDispositionFormData("attachment", "users.csv");
-        
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(csvData);
+        return csvAttachment("users", gzip, adminService::exportUsersCsv);
     }
     
     @GetMapping("/export/activities")
-    public ResponseEntity<byte[]> exportActivities(
+    public ResponseEntity<StreamingResponseBody> exportActivities(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "false") boolean gzip) {
         log.info("Exporting activities to CSV for date range: {} to {}", startDate, endDate);
-        byte[] csvData = adminService.exportActivitiesCsv(startDate, endDate);
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType("text/csv"));
-        headers.setContentDispositionFormData("attachment", "activities.csv");
-        
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(csvData);
+        return csvAttachment("activities", gzip, writer -> adminService.exportActivitiesCsv(startDate, endDate, writer));
     }
     
     @GetMapping("/export/deployments")
-    public ResponseEntity<byte[]> exportDeployments() {
+    public ResponseEntity<StreamingResponseBody> exportDeployments(@RequestParam(defaultValue = "false") boolean gzip) {
         log.info("Exporting deployments to CSV");
-        byte[] csvData = adminService.exportDeploymentsCsv();
-        
+        return csvAttachment("deployments", gzip, adminService::exportDeploymentsCsv);
+    }
+    
+    // Rows go out through one fixed-size buffer as the cursor advances, nothing is held in full
+    private ResponseEntity<StreamingResponseBody> csvAttachment(String name, boolean gzip, Consumer<Writer> export) {
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType("text/csv"));
-        headers.setContentDispositionFormData("attachment", "deployments.csv");
+        headers.setContentType(MediaType.parseMediaType(gzip ? "application/gzip" : "text/csv"));
+        headers.setContentDispositionFormData("attachment", gzip ? name + ".csv.gz" : name + ".csv");
+        
+        StreamingResponseBody body = outputStream -> {
+            GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(outputStream, EXPORT_BUFFER_SIZE) : null;
+            Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(gzipStream != null ? gzipStream : outputStream, StandardCharsets.UTF_8),
+                    EXPORT_BUFFER_SIZE);
+            export.accept(writer);
+            writer.flush();
+            if (gzipStream != null) {
+                gzipStream.finish();
+            }
+        };
         
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(csvData);
+                .body(body);
     }
 }
@@ -63,6 +63,20 @@ public class GamificationController {
         return ResponseEntity.ok(leaderboard);
     }
     
+    @GetMapping("/leaderboard/around-me")
+    public ResponseEntity<List<UserStats>> getLeaderboardAroundMe(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "5") int radius) {
+        List<UserStats> leaderboard = gamificationService.getLeaderboardAround(user, radius);
+        return ResponseEntity.ok(leaderboard);
+    }
+    
+    @GetMapping("/leaderboard/rank")
+    public ResponseEntity<Map<String, Object>> getUserRank(@AuthenticationPrincipal User user) {
+        Integer rank = gamificationService.getUserRank(user);
+        return ResponseEntity.ok(Map.of("rank", rank != null ? rank : 0));
+    }
+    
     @GetMapping("/leaderboard/streaks")
     public ResponseEntity<List<UserStats>> getStreakLeaderboard(
             @RequestParam(defaultValue = "10") int limit) {
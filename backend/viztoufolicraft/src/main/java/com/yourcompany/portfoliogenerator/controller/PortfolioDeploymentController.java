@@ -10,9 +10,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -72,7 +76,10 @@ public class PortfolioDeploymentController {
         
         try {
             DeployedPortfolio deployment = deploymentService.selectAndDeployTemplate(user, templateId, request);
-            return ResponseEntity.ok(deployment);
+            return ResponseEntity.accepted().body(deployment);
+        } catch (IllegalStateException e) {
+            log.warn("Deployment rejected for user {}: {}", user.getEmail(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
         } catch (Exception e) {
             log.error("Failed to deploy portfolio", e);
             return ResponseEntity.badRequest().build();
@@ -89,7 +96,10 @@ public class PortfolioDeploymentController {
         
         try {
             DeployedPortfolio deployment = deploymentService.updateDeployment(user, deploymentId, request);
-            return ResponseEntity.ok(deployment);
+            return ResponseEntity.accepted().body(deployment);
+        } catch (IllegalStateException e) {
+            log.warn("Deployment rejected for user {}: {}", user.getEmail(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
         } catch (Exception e) {
             log.error("Failed to update deployment", e);
             return ResponseEntity.badRequest().build();
@@ -135,6 +145,19 @@ public class PortfolioDeploymentController {
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    @GetMapping(value = "/deployments/{deploymentId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<DeployedPortfolio.DeploymentStatus>> streamDeploymentStatus(
+            @AuthenticationPrincipal User user,
+            @PathVariable String deploymentId) {
+        
+        log.info("Streaming status of deployment: {} for user: {}", deploymentId, user.getEmail());
+        
+        return deploymentService.followDeploymentStatus(user, deploymentId)
+                .map(status -> ServerSentEvent.builder(status)
+                        .event("status")
+                        .build());
+    }
+    
     @GetMapping("/public")
     public ResponseEntity<Page<DeployedPortfolio>> getPublicPortfolios(Pageable pageable) {
         log.info("Fetching public portfolios");
@@ -3,19 +3,32 @@ package com.yourcompany.portfoliogenerator.controller;
 import com.yourcompany.portfoliogenerator.model.GeneratedResume;
 import com.yourcompany.portfoliogenerator.model.ResumeTemplate;
 import com.yourcompany.portfoliogenerator.model.User;
+import com.yourcompany.portfoliogenerator.service.ResumeDownload;
 import com.yourcompany.portfoliogenerator.service.ResumeGeneratorService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/resume")
@@ -58,10 +71,24 @@ public class ResumeController {
         GeneratedResume.FileFormat format = GeneratedResume.FileFormat.valueOf(
                 request.getOrDefault("format", "PDF").toString().toUpperCase());
         
-        GeneratedResume generatedResume = resumeGeneratorService.generateResume(user, templateId, format);
+        GeneratedResume generatedResume;
+        try {
+            generatedResume = resumeGeneratorService.generateResume(user, templateId, format);
+        } catch (IllegalStateException e) {
+            log.warn("Resume generation rejected for user {}: {}", user.getUsername(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
         
         log.info("Resume generation initiated for user: {} with template: {}", user.getUsername(), templateId);
-        return ResponseEntity.ok(generatedResume);
+        return ResponseEntity.accepted().body(generatedResume);
+    }
+    
+    @GetMapping("/{resumeId}/status")
+    public ResponseEntity<GeneratedResume> getResumeStatus(
+            @AuthenticationPrincipal User user,
+            @PathVariable String resumeId) {
+        
+        return ResponseEntity.ok(resumeGeneratorService.getResume(user, resumeId));
     }
     
     @GetMapping("/my-resumes")
@@ -77,29 +104,95 @@ public class ResumeController {
     }
     
     @GetMapping("/download/{resumeId}")
-    public ResponseEntity<Resource> downloadResume(
+    public void downloadResume(
             @AuthenticationPrincipal User user,
-            @PathVariable Long resumeId) throws IOException {
+            @PathVariable String resumeId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletResponse response) throws IOException {
         
-        Resource resource = resumeGeneratorService.downloadResume(user, resumeId);
+        ResumeDownload download = resumeGeneratorService.prepareDownload(user, resumeId);
+        long length = download.getLength();
         
-        // Determine content type based on file extension
-        String contentType = "application/octet-stream";
-        String filename = resource.getFilename();
-        if (filename != null) {
-            if (filename.endsWith(".pdf")) {
-                contentType = "application/pdf";
-            } else if (filename.endsWith(".html")) {
-                contentType = "text/html";
-            } else if (filename.endsWith(".docx")) {
-                contentType = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, download.getETag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, download.getLastModified());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.maxAge(1, TimeUnit.HOURS).cachePrivate().getHeaderValue());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(download.getFileName(), StandardCharsets.UTF_8)
+                .build()
+                .toString());
+        
+        if (ifNoneMatch != null && (ifNoneMatch.contains(download.getETag()) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        
+        long start = 0;
+        long end = length - 1;
+        boolean partial = false;
+        // A stale If-Range means the client's partial copy is outdated, send the whole file
+        if (rangeHeader != null && rangeStillValid(ifRange, download)) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                // Multi-range requests are answered with the full body, which RFC 9110 allows
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    partial = true;
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
             }
         }
         
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .body(resource);
+        // Resumed and chunked downloads only count once
+        if (start == 0) {
+            resumeGeneratorService.recordDownload(download.getResumeId());
+        }
+        
+        response.setContentType(download.getContentType());
+        if (partial) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        
+        // Kernel-side copy where the container allows it, never buffered whole on the heap
+        try (FileChannel file = FileChannel.open(download.getPath(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long transferred = file.transferTo(position, remaining, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+    
+    private boolean rangeStillValid(String ifRange, ResumeDownload download) {
+        if (ifRange == null) {
+            return true;
+        }
+        String validator = ifRange.trim();
+        if (validator.startsWith("\"") || validator.startsWith("W/")) {
+            // If-Range requires a strong match
+            return validator.equals(download.getETag());
+        }
+        try {
+            long since = ZonedDateTime.parse(validator, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return download.getLastModified() / 1000 <= since / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
     }
     
     @DeleteMapping("/{resumeId}")
@@ -97,7 +97,7 @@ public class UserProfileController {
             return Mono.just(ResponseEntity.badRequest().build());
         }
         
-        return gitHubIntegrationService.fetchGitHubProfile(username)
+        return gitHubIntegrationService.getGitHubProfile(username)
                 .map(profile -> {
                     // Update user profile with GitHub URL if not already set
                     UserProfile userProfile = userProfileService.getUserProfile(user);
@@ -153,7 +153,7 @@ public class UserProfileController {
         if (githubUrl != null && !githubUrl.trim().isEmpty()) {
             String githubUsername = extractGitHubUsername(githubUrl);
             if (githubUsername != null) {
-                githubMono = gitHubIntegrationService.fetchGitHubProfile(githubUsername)
+                githubMono = gitHubIntegrationService.getGitHubProfile(githubUsername)
                         .onErrorReturn(new GitHubProfile()); // Return empty profile on error
             }
         }
@@ -0,0 +1,60 @@
+package com.yourcompany.portfoliogenerator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Pre-aggregated counters for one hour, one day, or all time. Ids are {@code H:<yyyy-MM-ddTHH>},
+ * {@code D:<yyyy-MM-dd>} and {@code TOTAL}, so a bucket is read by key; counts backfilled from
+ * existing data sit in a document of the same id prefixed {@code B:}. Status counters count
+ * transitions into each status; backfilled ones count only the last status of a deployment.
+ */
+@Document(collection = "activity_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActivityRollup {
+
+    @Id
+    private String id;
+
+    private Granularity granularity;
+
+    private LocalDateTime bucketStart;
+
+    private long activities;
+
+    private long deploymentsCreated;
+
+    private Map<String, Long> activityTypes;
+
+    private Map<String, Long> deploymentPlatforms;
+
+    private Map<String, Long> deploymentStatuses;
+
+    private LocalDateTime updatedAt;
+
+    // Totals document only: when existing data was counted in, and the time live counting starts at
+    private LocalDateTime backfilledAt;
+
+    private LocalDateTime backfillCutoff;
+
+    // Hour and day buckets age out, the totals document has none
+    @Indexed(expireAfter = "0s")
+    private LocalDateTime expiresAt;
+
+    public enum Granularity {
+        HOUR,
+        DAY,
+        TOTAL
+    }
+}
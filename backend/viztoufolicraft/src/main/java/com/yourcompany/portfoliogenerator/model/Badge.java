@@ -31,6 +31,11 @@ public class Badge {
     
     private Integer pointsRequired;
     
+    // Stat that earns this badge once it reaches the threshold; null for manually awarded badges
+    private TriggerStat triggerStat;
+    
+    private Integer threshold;
+    
     private String iconUrl;
     
     private String colorCode;
@@ -69,6 +74,16 @@ public class Badge {
         SPECIAL_RECOGNITION
     }
     
+    public enum TriggerStat {
+        TOTAL_POINTS,
+        LEVEL,
+        CURRENT_STREAK,
+        RESUMES_GENERATED,
+        PORTFOLIOS_CREATED,
+        SOCIAL_ACCOUNTS_CONNECTED,
+        PROFILE_COMPLETION
+    }
+    
     public enum RarityLevel {
         COMMON,
         UNCOMMON,
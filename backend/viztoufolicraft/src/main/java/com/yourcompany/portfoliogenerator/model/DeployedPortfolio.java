@@ -64,6 +64,8 @@ public class DeployedPortfolio {
     
     // Build Information
     private String buildVersion;
+    private String baseFingerprint;
+    private String customizationFingerprint;
     private String buildLog;
     private LocalDateTime lastBuildTime;
     private LocalDateTime deployedAt;
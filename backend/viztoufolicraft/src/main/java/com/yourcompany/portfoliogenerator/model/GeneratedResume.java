@@ -32,6 +32,9 @@ public class GeneratedResume {
     
     private Long fileSize;
     
+    // Key of the shared ResumeBlob holding the bytes; null for resumes stored before deduplication
+    private String contentHash;
+    
     private FileFormat format;
     
     private GenerationStatus status;
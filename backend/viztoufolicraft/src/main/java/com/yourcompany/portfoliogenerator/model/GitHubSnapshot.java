@@ -0,0 +1,39 @@
+package com.yourcompany.portfoliogenerator.model;
+
+import com.yourcompany.portfoliogenerator.service.GitHubProfile;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * The last GitHub profile fetched for a username, kept so syncs within the freshness window
+ * do not go back to GitHub. The id is the lower-cased username.
+ */
+@Document(collection = "github_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GitHubSnapshot {
+
+    @Id
+    private String id;
+
+    private GitHubProfile profile;
+
+    // ETag GitHub sent with the user document at fetch time, sent back on the next refresh
+    private String etag;
+
+    // Last refresh that failed, so stale reads do not retry it straight away
+    private LocalDateTime refreshFailedAt;
+
+    // Snapshots not refreshed for a month are dropped
+    @Indexed(expireAfter = "30d")
+    private LocalDateTime fetchedAt;
+}
@@ -0,0 +1,38 @@
+package com.yourcompany.portfoliogenerator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * A rendered resume file shared by every {@link GeneratedResume} with the same template
+ * version, format and portfolio data. The id is the content key; refCount tracks how many
+ * resumes point at the file.
+ */
+@Document(collection = "resume_blobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumeBlob {
+    
+    @Id
+    private String id;
+    
+    private GeneratedResume.FileFormat format;
+    
+    private String filePath;
+    
+    private Long fileSize;
+    
+    private Integer refCount;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime lastReferencedAt;
+}
@@ -3,6 +3,7 @@ package com.yourcompany.portfoliogenerator.model;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DBRef;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,6 +12,8 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Document(collection = "user_templates")
+@CompoundIndex(name = "deployment_url_deployed", def = "{'deploymentUrl': 1, 'deployed': 1}",
+        unique = true, partialFilter = "{ 'deployed': true }")
 @Data
 @Builder
 @NoArgsConstructor
@@ -0,0 +1,80 @@
+package com.yourcompany.portfoliogenerator.publicsite;
+
+import com.yourcompany.portfoliogenerator.model.DeployedPortfolio;
+import com.yourcompany.portfoliogenerator.service.PortfolioArtifactStore;
+import com.yourcompany.portfoliogenerator.service.PortfolioDeploymentService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/sites")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class DeployedSiteController {
+
+    private final PortfolioDeploymentService deploymentService;
+
+    @GetMapping("/{subdomain}")
+    public void serveSite(
+            @PathVariable String subdomain,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletResponse response) throws IOException {
+
+        Optional<DeployedPortfolio> deploymentOpt = deploymentService.getServableDeploymentBySubdomain(subdomain);
+        Optional<PortfolioArtifactStore.Artifact> artifactOpt = deploymentOpt
+                .flatMap(deployment -> deploymentService.resolveArtifact(deployment, acceptEncoding));
+        if (artifactOpt.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        DeployedPortfolio deployment = deploymentOpt.get();
+        PortfolioArtifactStore.Artifact artifact = artifactOpt.get();
+
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.ETAG, artifact.getETag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl(deployment).getHeaderValue());
+
+        if (ifNoneMatch != null && ifNoneMatch.contains(artifact.getETag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType("text/html;charset=UTF-8");
+        if (artifact.getEncoding() != PortfolioArtifactStore.Encoding.IDENTITY) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, artifact.getEncoding().getToken());
+        }
+        response.setContentLengthLong(artifact.getLength());
+
+        // Hand the file straight to the socket instead of copying it through the heap
+        try (FileChannel file = FileChannel.open(artifact.getPath(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            long size = file.size();
+            while (position < size) {
+                position += file.transferTo(position, size - position, out);
+            }
+        }
+    }
+
+    private CacheControl cacheControl(DeployedPortfolio deployment) {
+        if (!deployment.isCacheEnabled() || deployment.getCacheTTL() == null) {
+            return CacheControl.noCache();
+        }
+        return CacheControl.maxAge(deployment.getCacheTTL(), TimeUnit.SECONDS).cachePublic();
+    }
+}
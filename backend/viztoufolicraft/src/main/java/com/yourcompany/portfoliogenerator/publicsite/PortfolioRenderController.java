@@ -1,32 +1,60 @@
 package com.yourcompany.portfoliogenerator.publicsite;
 
 import com.yourcompany.portfoliogenerator.model.UserTemplate;
+import com.yourcompany.portfoliogenerator.template.DeployedTemplateIndex;
+import com.yourcompany.portfoliogenerator.template.PlaceholderTemplate;
+import com.yourcompany.portfoliogenerator.template.PlaceholderTemplateCache;
+import com.yourcompany.portfoliogenerator.template.RenderedPortfolioCache;
+import com.yourcompany.portfoliogenerator.template.RenderedPortfolioCache.RenderedPortfolio;
 import com.yourcompany.portfoliogenerator.template.UserTemplateService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 @RestController
 @RequestMapping("/portfolio")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*")
 public class PortfolioRenderController {
     
+    private static final MediaType TEXT_HTML_UTF8 = MediaType.parseMediaType("text/html;charset=UTF-8");
+    private static final String USER_DATA_PLACEHOLDER = "USER_DATA";
+    // Fixed markup around the user's content
+    private static final int PAGE_OVERHEAD = 512;
+    
     private final UserTemplateService userTemplateService;
+    private final DeployedTemplateIndex deployedTemplateIndex;
+    private final RenderedPortfolioCache renderedPortfolioCache;
+    private final PlaceholderTemplateCache placeholderTemplateCache;
     
     @GetMapping("/{username}/{portfolioId}")
-    public ResponseEntity<String> renderPortfolio(
+    public ResponseEntity<byte[]> renderPortfolio(
             @PathVariable String username,
-            @PathVariable String portfolioId) {
+            @PathVariable String portfolioId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
         String deploymentUrl = String.format("/portfolio/%s/%s", username, portfolioId);
         
+        // Cache entries are invalidated on update/deploy/undeploy and older renders cannot come
+        // back afterwards, so a hit needs no Mongo round-trip
+        String userTemplateId = deployedTemplateIndex.resolve(deploymentUrl);
+        if (userTemplateId != null) {
+            RenderedPortfolio cached = renderedPortfolioCache.get(userTemplateId);
+            if (cached != null) {
+                return toResponse(cached, ifNoneMatch);
+            }
+        }
+        
         return userTemplateService.getDeployedTemplateByUrl(deploymentUrl)
-                .map(this::generatePortfolioHtml)
-                .map(html -> ResponseEntity.ok()
-                        .contentType(MediaType.TEXT_HTML)
-                        .body(html))
+                .map(this::renderCached)
+                .map(page -> toResponse(page, ifNoneMatch))
                 .orElse(ResponseEntity.notFound().build());
     }
     
@@ -45,21 +73,57 @@ public class PortfolioRenderController {
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    private RenderedPortfolio renderCached(UserTemplate userTemplate) {
+        String ownerName = ownerName(userTemplate);
+        RenderedPortfolio cached = renderedPortfolioCache.get(userTemplate.getId(), userTemplate.getUpdatedAt(), ownerName);
+        if (cached != null) {
+            return cached;
+        }
+        return renderedPortfolioCache.put(userTemplate.getId(), userTemplate.getUpdatedAt(), ownerName,
+                generatePortfolioHtml(userTemplate));
+    }
+    
+    // The only user fields the page shows, part of the cache tag
+    private static String ownerName(UserTemplate userTemplate) {
+        return userTemplate.getUser().getFirstName() + " " + userTemplate.getUser().getLastName();
+    }
+    
+    private ResponseEntity<byte[]> toResponse(RenderedPortfolio page, String ifNoneMatch) {
+        if (page.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(page.getETag())
+                    .lastModified(page.getLastModified())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        
+        return ResponseEntity.ok()
+                .contentType(TEXT_HTML_UTF8)
+                .eTag(page.getETag())
+                .lastModified(page.getLastModified())
+                .cacheControl(CacheControl.noCache())
+                .body(page.getBody());
+    }
+    
     private String generatePortfolioHtml(UserTemplate userTemplate) {
         String html = userTemplate.getCustomizedHtml();
         String css = userTemplate.getCustomizedCss();
         String js = userTemplate.getCustomizedJs();
         String userData = userTemplate.getUserData();
         
+        // Compiled once per template version; rendered straight into the page buffer below
+        PlaceholderTemplate body = html != null && !html.trim().isEmpty() ? compileBody(userTemplate, html) : null;
+        
         // Create a complete HTML document
-        StringBuilder fullHtml = new StringBuilder();
+        StringBuilder fullHtml = new StringBuilder(PAGE_OVERHEAD
+                + (body != null ? body.estimateLength() + length(userData) : 0)
+                + length(css) + length(js));
         fullHtml.append("<!DOCTYPE html>\n");
         fullHtml.append("<html lang=\"en\">\n");
         fullHtml.append("<head>\n");
         fullHtml.append("    <meta charset=\"UTF-8\">\n");
         fullHtml.append("    <meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n");
-        fullHtml.append("    <title>").append(userTemplate.getUser().getFirstName())
-                .append(" ").append(userTemplate.getUser().getLastName()).append(" - Portfolio</title>\n");
+        fullHtml.append("    <title>").append(ownerName(userTemplate)).append(" - Portfolio</title>\n");
         
         // Add CSS
         if (css != null && !css.trim().isEmpty()) {
@@ -72,10 +136,9 @@ public class PortfolioRenderController {
         fullHtml.append("<body>\n");
         
         // Add HTML content
-        if (html != null && !html.trim().isEmpty()) {
+        if (body != null) {
             // Replace placeholders with user data if needed
-            String processedHtml = processHtmlWithUserData(html, userData);
-            fullHtml.append(processedHtml);
+            processHtmlWithUserData(body, userData, fullHtml);
         }
         
         // Add JavaScript
@@ -91,13 +154,22 @@ public class PortfolioRenderController {
         return fullHtml.toString();
     }
     
-    private String processHtmlWithUserData(String html, String userData) {
-        // Simple placeholder replacement
-        // In a real implementation, you might use a more sophisticated template engine
-        if (userData != null && !userData.trim().isEmpty()) {
-            // Replace common placeholders
-            html = html.replaceAll("\\{\\{USER_DATA\\}\\}", userData);
+    private PlaceholderTemplate compileBody(UserTemplate userTemplate, String html) {
+        String key = "user-template/" + userTemplate.getId() + "@" + userTemplate.getUpdatedAt();
+        return placeholderTemplateCache.get(key, html);
+    }
+    
+    private void processHtmlWithUserData(PlaceholderTemplate body, String userData, StringBuilder out) {
+        boolean hasUserData = userData != null && !userData.trim().isEmpty();
+        try {
+            body.renderTo(key -> hasUserData && USER_DATA_PLACEHOLDER.equals(key) ? userData : null, out);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+            throw new UncheckedIOException(e);
         }
-        return html;
+    }
+    
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
     }
 }
@@ -0,0 +1,9 @@
+package com.yourcompany.portfoliogenerator.repository;
+
+import com.yourcompany.portfoliogenerator.model.GitHubSnapshot;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GitHubSnapshotRepository extends MongoRepository<GitHubSnapshot, String> {
+}
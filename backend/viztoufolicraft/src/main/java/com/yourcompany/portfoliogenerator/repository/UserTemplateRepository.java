@@ -4,6 +4,7 @@ import com.yourcompany.portfoliogenerator.model.PortfolioTemplate;
 import com.yourcompany.portfoliogenerator.model.User;
 import com.yourcompany.portfoliogenerator.model.UserTemplate;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -21,4 +22,9 @@ public interface UserTemplateRepository extends MongoRepository<UserTemplate, St
     boolean existsByUserAndTemplate(User user, PortfolioTemplate template);
     
     List<UserTemplate> findByDeployedTrue();
+    
+    Optional<UserTemplate> findByDeploymentUrlAndDeployedTrue(String deploymentUrl);
+    
+    @Query(value = "{ 'deployed': true }", fields = "{ 'deploymentUrl': 1 }")
+    List<UserTemplate> findDeploymentUrls();
 }
@@ -0,0 +1,198 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.yourcompany.portfoliogenerator.model.ActivityLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded buffer between request threads and the activity_logs collection. Events are queued
+ * without touching Mongo and a single writer thread inserts them in batches, once a batch is
+ * full or the flush interval has passed since its first event. What happens when the buffer is
+ * full is configurable; anything still buffered is written on shutdown.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityLogIngestionPipeline {
+
+    public enum OverflowPolicy {
+        // Evict the oldest buffered event to make room
+        DROP_OLDEST,
+        // Wait up to block-timeout-ms for room, then drop the new event
+        BLOCK,
+        // Keep one in sample-rate events once the buffer is 80% full
+        SAMPLE
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ActivityRollupService activityRollupService;
+
+    @Value("${app.activity-log.buffer-capacity:10000}")
+    private int bufferCapacity;
+
+    @Value("${app.activity-log.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.activity-log.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${app.activity-log.overflow-policy:DROP_OLDEST}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${app.activity-log.block-timeout-ms:100}")
+    private long blockTimeoutMs;
+
+    @Value("${app.activity-log.sample-rate:10}")
+    private int sampleRate;
+
+    private final AtomicLong sampleSequence = new AtomicLong();
+
+    private BlockingQueue<ActivityLog> buffer;
+    private Thread writer;
+    private volatile boolean running;
+
+    private Counter dropped;
+    private Counter failed;
+    private DistributionSummary batchSizes;
+
+    @PostConstruct
+    public void start() {
+        buffer = new ArrayBlockingQueue<>(bufferCapacity);
+
+        Gauge.builder("activity.log.buffer.depth", buffer, BlockingQueue::size)
+                .description("Activity log events waiting to be written")
+                .register(meterRegistry);
+        dropped = Counter.builder("activity.log.dropped")
+                .tag("policy", overflowPolicy.name())
+                .description("Activity log events discarded because the buffer was full")
+                .register(meterRegistry);
+        failed = Counter.builder("activity.log.failed")
+                .description("Activity log events lost to failed batch inserts")
+                .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("activity.log.batch.size")
+                .description("Activity log events per insert")
+                .register(meterRegistry);
+
+        running = true;
+        writer = Thread.ofPlatform().name("activity-log-writer").daemon(true).start(this::drainLoop);
+        log.info("Activity log pipeline started with capacity {}, batch size {} and policy {}",
+                bufferCapacity, batchSize, overflowPolicy);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (writer.isAlive()) {
+            log.warn("Activity log writer did not finish in time, {} events abandoned", buffer.size());
+            writer.interrupt();
+        }
+    }
+
+    /**
+     * Queues an event for writing. Never throws; an event that cannot be buffered is counted
+     * as dropped.
+     */
+    public void submit(ActivityLog activityLog) {
+        boolean accepted = switch (overflowPolicy) {
+            case DROP_OLDEST -> offerDroppingOldest(activityLog);
+            case BLOCK -> offerBlocking(activityLog);
+            case SAMPLE -> offerSampled(activityLog);
+        };
+        if (!accepted) {
+            dropped.increment();
+        }
+    }
+
+    private boolean offerDroppingOldest(ActivityLog activityLog) {
+        while (!buffer.offer(activityLog)) {
+            if (buffer.poll() != null) {
+                dropped.increment();
+            }
+        }
+        return true;
+    }
+
+    private boolean offerBlocking(ActivityLog activityLog) {
+        try {
+            return buffer.offer(activityLog, blockTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean offerSampled(ActivityLog activityLog) {
+        if (buffer.size() >= bufferCapacity * 4 / 5
+                && sampleSequence.incrementAndGet() % sampleRate != 0) {
+            return false;
+        }
+        return buffer.offer(activityLog);
+    }
+
+    private void drainLoop() {
+        List<ActivityLog> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !buffer.isEmpty()) {
+                ActivityLog first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Activity log writer interrupted with {} events buffered", buffer.size() + batch.size());
+        }
+    }
+
+    // Adds events until the batch is full or the flush interval since its first event is over
+    private void fillBatch(List<ActivityLog> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            ActivityLog next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<ActivityLog> batch) {
+        try {
+            mongoTemplate.insert(batch, ActivityLog.class);
+            batchSizes.record(batch.size());
+            log.debug("Wrote {} activity log events", batch.size());
+        } catch (Exception e) {
+            failed.increment(batch.size());
+            log.error("Failed to write {} activity log events: {}", batch.size(), e.getMessage(), e);
+            return;
+        }
+        activityRollupService.recordActivities(batch);
+    }
+}
@@ -3,15 +3,11 @@ package com.yourcompany.portfoliogenerator.service;
 import com.yourcompany.portfoliogenerator.model.ActivityLog;
 import com.yourcompany.portfoliogenerator.model.User;
 import com.yourcompany.portfoliogenerator.repository.ActivityLogRepository;
-import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,12 +18,18 @@ import java.util.List;
 public class ActivityLogService {
     
     private final ActivityLogRepository activityLogRepository;
+    private final ActivityLogIngestionPipeline ingestionPipeline;
     
-    @Async
     public void logActivity(User user, ActivityLog.ActivityType type, String description, String entityType, String entityId) {
+        logActivity(RequestMetadata.capture(), user, type, description, entityType, entityId);
+    }
+    
+    /**
+     * Logs with request details captured earlier, for callers running off the request thread.
+     */
+    public void logActivity(RequestMetadata request, User user, ActivityLog.ActivityType type, String description,
+                            String entityType, String entityId) {
         try {
-            HttpServletRequest request = getCurrentRequest();
-            
             ActivityLog activityLog = ActivityLog.builder()
                     .user(user)
                     .action(type.name())
@@ -35,13 +37,13 @@ public class ActivityLogService {
                     .type(type)
                     .entityType(entityType)
                     .entityId(entityId)
-                    .ipAddress(getClientIpAddress(request))
-                    .userAgent(getUserAgent(request))
-                    .sessionId(getSessionId(request))
+                    .ipAddress(request.ipAddress())
+                    .userAgent(request.userAgent())
+                    .sessionId(request.sessionId())
                     .timestamp(LocalDateTime.now())
                     .build();
             
-            activityLogRepository.save(activityLog);
+            ingestionPipeline.submit(activityLog);
             log.debug("Activity logged: {} - {}", type, description);
             
         } catch (Exception e) {
@@ -49,11 +51,10 @@ public class ActivityLogService {
         }
     }
     
-    @Async
     public void logActivity(User user, ActivityLog.ActivityType type, String description, 
                            String entityType, String entityId, String oldValue, String newValue) {
         try {
-            HttpServletRequest request = getCurrentRequest();
+            RequestMetadata request = RequestMetadata.capture();
             
             ActivityLog activityLog = ActivityLog.builder()
                     .user(user)
@@ -64,13 +65,13 @@ public class ActivityLogService {
                     .entityId(entityId)
                     .oldValue(oldValue)
                     .newValue(newValue)
-                    .ipAddress(getClientIpAddress(request))
-                    .userAgent(getUserAgent(request))
-                    .sessionId(getSessionId(request))
+                    .ipAddress(request.ipAddress())
+                    .userAgent(request.userAgent())
+                    .sessionId(request.sessionId())
                     .timestamp(LocalDateTime.now())
                     .build();
             
-            activityLogRepository.save(activityLog);
+            ingestionPipeline.submit(activityLog);
             log.debug("Activity logged with values: {} - {}", type, description);
             
         } catch (Exception e) {
@@ -78,7 +79,6 @@ public class ActivityLogService {
         }
     }
     
-    @Async
     public void logSystemActivity(ActivityLog.ActivityType type, String description, String entityType, String entityId) {
         try {
             ActivityLog activityLog = ActivityLog.builder()
@@ -90,7 +90,7 @@ public class ActivityLogService {
                     .timestamp(LocalDateTime.now())
                     .build();
             
-            activityLogRepository.save(activityLog);
+            ingestionPipeline.submit(activityLog);
             log.debug("System activity logged: {} - {}", type, description);
             
         } catch (Exception e) {
@@ -139,34 +139,4 @@ public class ActivityLogService {
         activityLogRepository.deleteByTimestampBefore(beforeDate);
         log.info("Activity logs cleanup completed");
     }
-    
-    private HttpServletRequest getCurrentRequest() {
-        ServletRequestAttributes requestAttributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-        return requestAttributes != null ? requestAttributes.getRequest() : null;
-    }
-    
-    private String getClientIpAddress(HttpServletRequest request) {
-        if (request == null) return "unknown";
-        
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty() && !"unknown".equalsIgnoreCase(xForwardedFor)) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-        
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty() && !"unknown".equalsIgnoreCase(xRealIp)) {
-            return xRealIp;
-        }
-        
-        return request.getRemoteAddr();
-    }
-    
-    private String getUserAgent(HttpServletRequest request) {
-        return request != null ? request.getHeader("User-Agent") : "unknown";
-    }
-    
-    private String getSessionId(HttpServletRequest request) {
-        return request != null && request.getSession(false) != null ? 
-                request.getSession().getId() : "no-session";
-    }
 }
@@ -0,0 +1,383 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.yourcompany.portfoliogenerator.model.ActivityLog;
+import com.yourcompany.portfoliogenerator.model.ActivityRollup;
+import com.yourcompany.portfoliogenerator.model.DeployedPortfolio;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains {@link ActivityRollup} counters for the admin dashboard. Activity events are
+ * counted per batch as the ingestion pipeline writes them, deployment events as they happen;
+ * each flush is one bulk of {@code $inc} upserts.
+ * <p>
+ * The totals document holds a cutoff fixed the first time any instance needs it. Live
+ * recording counts only events from the cutoff on, the backfill only data from before it,
+ * so the two never overlap. The backfill {@code $set}s its counts into separate {@code B:}
+ * documents that readers add in, which makes a retry after a partial write, or two instances
+ * backfilling at once, write the same values again. The totals document records when a
+ * backfill succeeded; an instance that starts later retries one that never finished.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityRollupService {
+
+    public static final String TOTAL_ID = "TOTAL";
+
+    private static final DateTimeFormatter HOUR_KEY = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH");
+    private static final DateTimeFormatter DAY_KEY = DateTimeFormatter.ISO_LOCAL_DATE;
+
+    private static final long HOUR_RETENTION_DAYS = 14;
+    private static final long DAY_RETENTION_DAYS = 400;
+
+    // Enough hourly history to answer the dashboard's 7-day window
+    private static final long BACKFILL_DAYS = 8;
+
+    // Backfilled counters live under this prefix, next to the live document with the same id
+    private static final String BACKFILL_PREFIX = "B:";
+
+    private final MongoTemplate mongoTemplate;
+
+    private volatile LocalDateTime cutoff;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            LocalDateTime before = cutoff();
+            ActivityRollup totals = mongoTemplate.findById(TOTAL_ID, ActivityRollup.class);
+            if (totals != null && totals.getBackfilledAt() != null) {
+                return;
+            }
+
+            Increments increments = new Increments();
+            LocalDateTime since = LocalDate.now().minusDays(BACKFILL_DAYS).atStartOfDay();
+
+            Criteria loggedBefore = Criteria.where("timestamp").lt(before);
+            for (Document row : countBy(ActivityLog.class, loggedBefore, "type")) {
+                increments.total("activityTypes." + row.get("_id"), count(row));
+                increments.total("activities", count(row));
+            }
+            for (Document row : countByHour(ActivityLog.class, "timestamp", since, before, "type")) {
+                Document key = row.get("_id", Document.class);
+                LocalDateTime hour = LocalDateTime.parse(key.getString("hour") + ":00");
+                increments.bucket(hour, "activityTypes." + key.get("type"), count(row));
+                increments.bucket(hour, "activities", count(row));
+            }
+
+            Criteria createdBefore = Criteria.where("createdAt").lt(before);
+            for (Document row : countBy(DeployedPortfolio.class, createdBefore, "platform")) {
+                increments.total("deploymentPlatforms." + row.get("_id"), count(row));
+                increments.total("deploymentsCreated", count(row));
+            }
+            // Only the last transition of existing deployments is known. Deployments that moved
+            // since the cutoff are left to live recording, which counts that move.
+            Criteria settledBefore = new Criteria().orOperator(
+                    Criteria.where("lastUpdated").lt(before),
+                    new Criteria().andOperator(Criteria.where("lastUpdated").exists(false), createdBefore));
+            for (Document row : countBy(DeployedPortfolio.class, settledBefore, "status")) {
+                increments.total("deploymentStatuses." + row.get("_id"), count(row));
+            }
+            for (Document row : countByHour(DeployedPortfolio.class, "createdAt", since, before, "platform")) {
+                Document key = row.get("_id", Document.class);
+                LocalDateTime hour = LocalDateTime.parse(key.getString("hour") + ":00");
+                increments.bucket(hour, "deploymentPlatforms." + key.get("platform"), count(row));
+                increments.bucket(hour, "deploymentsCreated", count(row));
+            }
+
+            writeBackfill(increments);
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(TOTAL_ID)),
+                    new Update().set("backfilledAt", LocalDateTime.now()), ActivityRollup.class);
+            log.info("Backfilled activity rollups into {} buckets", increments.size());
+        } catch (Exception e) {
+            log.error("Activity rollup backfill failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Counts a batch of activity events that was just written. Events from before the cutoff
+     * are the backfill's.
+     */
+    public void recordActivities(List<ActivityLog> batch) {
+        Increments increments = new Increments();
+        LocalDateTime before;
+        try {
+            before = cutoff();
+        } catch (Exception e) {
+            log.error("Failed to update activity rollups: {}", e.getMessage(), e);
+            return;
+        }
+        for (ActivityLog activityLog : batch) {
+            LocalDateTime at = activityLog.getTimestamp() != null ? activityLog.getTimestamp() : LocalDateTime.now();
+            if (at.isBefore(before)) {
+                continue;
+            }
+            increments.everywhere(at, "activities", 1);
+            if (activityLog.getType() != null) {
+                increments.everywhere(at, "activityTypes." + activityLog.getType().name(), 1);
+            }
+        }
+        writeQuietly(increments);
+    }
+
+    /**
+     * Counts a saved deployment, at its {@code createdAt} and, for the initial status, its
+     * {@code lastUpdated}, the times the backfill compares against the cutoff.
+     */
+    public void recordDeploymentCreated(DeployedPortfolio deployment) {
+        Increments increments = new Increments();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime createdAt = deployment.getCreatedAt() != null ? deployment.getCreatedAt() : now;
+        if (isLive(createdAt)) {
+            increments.everywhere(createdAt, "deploymentsCreated", 1);
+            if (deployment.getPlatform() != null) {
+                increments.everywhere(createdAt, "deploymentPlatforms." + deployment.getPlatform().name(), 1);
+            }
+        }
+        LocalDateTime settledAt = deployment.getLastUpdated() != null ? deployment.getLastUpdated() : createdAt;
+        if (deployment.getStatus() != null && isLive(settledAt)) {
+            increments.everywhere(settledAt, "deploymentStatuses." + deployment.getStatus().name(), 1);
+        }
+        writeQuietly(increments);
+    }
+
+    /**
+     * Counts a transition into {@code status}, written with {@code lastUpdated} set to
+     * {@code at}. Every document counts transitions, the totals document over all time.
+     */
+    public void recordDeploymentStatus(DeployedPortfolio.DeploymentStatus previous,
+                                       DeployedPortfolio.DeploymentStatus status, LocalDateTime at) {
+        if (previous == status || !isLive(at)) {
+            return;
+        }
+        Increments increments = new Increments();
+        increments.everywhere(at, "deploymentStatuses." + status.name(), 1);
+        writeQuietly(increments);
+    }
+
+    public ActivityRollup getTotals() {
+        ActivityRollup totals = sum(List.of(TOTAL_ID));
+        totals.setId(TOTAL_ID);
+        return totals;
+    }
+
+    /**
+     * Sums the buckets from {@code since} until now: hourly buckets for the partial first day,
+     * daily buckets after that.
+     */
+    public ActivityRollup sumSince(LocalDateTime since) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate firstFullDay = since.toLocalDate().plusDays(1);
+
+        List<String> ids = new ArrayList<>();
+        for (LocalDateTime hour = since.truncatedTo(ChronoUnit.HOURS);
+             hour.isBefore(firstFullDay.atStartOfDay()) && !hour.isAfter(now); hour = hour.plusHours(1)) {
+            ids.add(hourId(hour));
+        }
+        for (LocalDate day = firstFullDay; !day.isAfter(now.toLocalDate()); day = day.plusDays(1)) {
+            ids.add(dayId(day));
+        }
+
+        ActivityRollup sum = sum(ids);
+        sum.setBucketStart(since);
+        return sum;
+    }
+
+    /**
+     * Fixes the cutoff in the totals document the first time an instance needs it; whichever
+     * instance gets there first sets it for all.
+     */
+    private LocalDateTime cutoff() {
+        LocalDateTime known = cutoff;
+        if (known != null) {
+            return known;
+        }
+        try {
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(TOTAL_ID).and("backfillCutoff").exists(false)),
+                    new Update().set("backfillCutoff", LocalDateTime.now())
+                            .setOnInsert("granularity", ActivityRollup.Granularity.TOTAL),
+                    ActivityRollup.class);
+        } catch (DuplicateKeyException e) {
+            // The totals document exists with a cutoff already
+        }
+        ActivityRollup totals = mongoTemplate.findById(TOTAL_ID, ActivityRollup.class);
+        if (totals == null || totals.getBackfillCutoff() == null) {
+            throw new IllegalStateException("Activity rollup cutoff is missing");
+        }
+        // Read back rather than kept, the store truncates to milliseconds
+        cutoff = totals.getBackfillCutoff();
+        return cutoff;
+    }
+
+    private boolean isLive(LocalDateTime at) {
+        try {
+            return !at.isBefore(cutoff());
+        } catch (Exception e) {
+            log.error("Failed to update activity rollups: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    // Live and backfilled counters of the given documents, added up
+    private ActivityRollup sum(List<String> ids) {
+        List<String> withBackfill = new ArrayList<>(ids);
+        ids.forEach(id -> withBackfill.add(BACKFILL_PREFIX + id));
+
+        ActivityRollup sum = ActivityRollup.builder()
+                .activityTypes(new HashMap<>())
+                .deploymentPlatforms(new HashMap<>())
+                .deploymentStatuses(new HashMap<>())
+                .build();
+        for (ActivityRollup bucket : mongoTemplate.find(Query.query(Criteria.where("_id").in(withBackfill)), ActivityRollup.class)) {
+            sum.setActivities(sum.getActivities() + bucket.getActivities());
+            sum.setDeploymentsCreated(sum.getDeploymentsCreated() + bucket.getDeploymentsCreated());
+            mergeInto(sum.getActivityTypes(), bucket.getActivityTypes());
+            mergeInto(sum.getDeploymentPlatforms(), bucket.getDeploymentPlatforms());
+            mergeInto(sum.getDeploymentStatuses(), bucket.getDeploymentStatuses());
+        }
+        return sum;
+    }
+
+    private List<Document> countBy(Class<?> entity, Criteria match, String field) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(match),
+                Aggregation.group(field).count().as("count"));
+        return mongoTemplate.aggregate(aggregation, entity, Document.class).getMappedResults();
+    }
+
+    private List<Document> countByHour(Class<?> entity, String timeField, LocalDateTime since,
+                                       LocalDateTime before, String field) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(timeField).gte(since).lt(before)),
+                Aggregation.project(field)
+                        .and(DateOperators.dateOf(timeField)
+                                .withTimezone(DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId()))
+                                .toString("%Y-%m-%dT%H"))
+                        .as("hour"),
+                Aggregation.group("hour", field).count().as("count"));
+        return mongoTemplate.aggregate(aggregation, entity, Document.class).getMappedResults();
+    }
+
+    private void writeQuietly(Increments increments) {
+        try {
+            write(increments);
+        } catch (Exception e) {
+            log.error("Failed to update activity rollups: {}", e.getMessage(), e);
+        }
+    }
+
+    private void write(Increments increments) {
+        if (increments.size() == 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityRollup.class);
+        increments.byBucket.forEach((bucket, counters) -> {
+            Update update = new Update().set("updatedAt", now)
+                    .setOnInsert("granularity", bucket.granularity)
+                    .setOnInsert("bucketStart", bucket.start);
+            if (bucket.expiresAt != null) {
+                update.setOnInsert("expiresAt", bucket.expiresAt);
+            }
+            counters.forEach(update::inc);
+            bulk.upsert(Query.query(Criteria.where("_id").is(bucket.id)), update);
+        });
+        bulk.execute();
+    }
+
+    // Sets rather than increments, so writing the same counts again changes nothing
+    private void writeBackfill(Increments increments) {
+        if (increments.size() == 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityRollup.class);
+        increments.byBucket.forEach((bucket, counters) -> {
+            Update update = new Update().set("updatedAt", now)
+                    .set("granularity", bucket.granularity)
+                    .set("bucketStart", bucket.start);
+            if (bucket.expiresAt != null) {
+                update.set("expiresAt", bucket.expiresAt);
+            }
+            counters.forEach(update::set);
+            bulk.upsert(Query.query(Criteria.where("_id").is(BACKFILL_PREFIX + bucket.id)), update);
+        });
+        bulk.execute();
+    }
+
+    private static void mergeInto(Map<String, Long> target, Map<String, Long> counters) {
+        if (counters != null) {
+            counters.forEach((key, value) -> target.merge(key, value, Long::sum));
+        }
+    }
+
+    private static long count(Document row) {
+        return row.get("count", Number.class).longValue();
+    }
+
+    private static String hourId(LocalDateTime at) {
+        return "H:" + at.format(HOUR_KEY);
+    }
+
+    private static String dayId(LocalDate day) {
+        return "D:" + day.format(DAY_KEY);
+    }
+
+    private record Bucket(String id, ActivityRollup.Granularity granularity, LocalDateTime start,
+                          LocalDateTime expiresAt) {
+    }
+
+    // Counter increments grouped by target document
+    private static final class Increments {
+        private final Map<Bucket, Map<String, Long>> byBucket = new LinkedHashMap<>();
+
+        private void everywhere(LocalDateTime at, String field, long delta) {
+            bucket(at, field, delta);
+            total(field, delta);
+        }
+
+        private void bucket(LocalDateTime at, String field, long delta) {
+            LocalDateTime hour = at.truncatedTo(ChronoUnit.HOURS);
+            LocalDateTime day = at.toLocalDate().atStartOfDay();
+            add(new Bucket(hourId(hour), ActivityRollup.Granularity.HOUR, hour, hour.plusDays(HOUR_RETENTION_DAYS)),
+                    field, delta);
+            add(new Bucket(dayId(day.toLocalDate()), ActivityRollup.Granularity.DAY, day, day.plusDays(DAY_RETENTION_DAYS)),
+                    field, delta);
+        }
+
+        private void total(String field, long delta) {
+            add(new Bucket(TOTAL_ID, ActivityRollup.Granularity.TOTAL, null, null), field, delta);
+        }
+
+        private void add(Bucket bucket, String field, long delta) {
+            byBucket.computeIfAbsent(bucket, key -> new HashMap<>()).merge(field, delta, Long::sum);
+        }
+
+        private int size() {
+            return byBucket.size();
+        }
+    }
+}
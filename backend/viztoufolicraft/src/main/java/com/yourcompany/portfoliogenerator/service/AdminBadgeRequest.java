@@ -1,5 +1,6 @@
 package com.yourcompany.portfoliogenerator.service;
 
+import com.yourcompany.portfoliogenerator.model.Badge;
 import lombok.Data;
 
 @Data
@@ -9,5 +10,7 @@ public class AdminBadgeRequest {
     private String iconUrl;
     private String category;
     private Integer pointsRequired;
+    private Badge.TriggerStat triggerStat;
+    private Integer threshold;
     private boolean isActive = true;
 }
@@ -2,23 +2,44 @@ package com.yourcompany.portfoliogenerator.service;
 
 import com.yourcompany.portfoliogenerator.model.*;
 import com.yourcompany.portfoliogenerator.repository.*;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintWriter;
+import com.mongodb.DBRef;
+import java.io.IOException;
+import java.io.Writer;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AdminService {
     
+    private static final DateTimeFormatter CSV_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int EXPORT_LOOKUP_CACHE_SIZE = 1000;
+    // Rows per round of reference lookups; at most half the cache, so a batch's answers fit in it
+    private static final int EXPORT_BATCH_SIZE = 500;
+    
     private final UserRepository userRepository;
     private final ActivityLogRepository activityLogRepository;
     private final DeployedPortfolioRepository deployedPortfolioRepository;
@@ -28,57 +49,141 @@ public class AdminService {
     private final PortfolioTemplateRepository templateRepository;
     private final ResumeTemplateRepository resumeTemplateRepository;
     private final ActivityLogService activityLogService;
+    private final GamificationService gamificationService;
+    private final ActivityRollupService activityRollupService;
+    private final BadgeRuleEngine badgeRuleEngine;
+    private final PrincipalCache principalCache;
+    private final MongoTemplate mongoTemplate;
+    
+    @Value("${app.admin.dashboard-cache-ttl-seconds:30}")
+    private long dashboardCacheTtlSeconds;
+    
+    private final AtomicReference<CompletableFuture<AdminDashboardStats>> dashboardStats = new AtomicReference<>();
+    private final ExecutorService dashboardExecutor = Executors.newVirtualThreadPerTaskExecutor();
     
+    /**
+     * Dashboard stats, cached for a short TTL. Concurrent callers during a refresh wait for the
+     * one computation in flight instead of starting their own.
+     */
     public AdminDashboardStats getDashboardStats() {
+        while (true) {
+            CompletableFuture<AdminDashboardStats> current = dashboardStats.get();
+            if (current != null && (!current.isDone() || isFresh(current))) {
+                return await(current);
+            }
+            
+            CompletableFuture<AdminDashboardStats> refresh = new CompletableFuture<>();
+            if (dashboardStats.compareAndSet(current, refresh)) {
+                try {
+                    refresh.complete(computeDashboardStats());
+                } catch (Throwable e) {
+                    // Do not cache the failure, the next caller tries again; waiters are released either way
+                    dashboardStats.compareAndSet(refresh, null);
+                    refresh.completeExceptionally(e);
+                }
+                return await(refresh);
+            }
+        }
+    }
+    
+    private AdminDashboardStats computeDashboardStats() {
         log.info("Generating admin dashboard statistics");
         
-        long totalUsers = userRepository.count();
-        long activeUsers = userRepository.countByEnabledTrue();
-        long totalDeployments = deployedPortfolioRepository.countActiveDeployments();
-        long totalTemplates = templateRepository.countByIsActiveTrue();
-        long totalBadges = badgeRepository.count();
-        
-        // Recent activity counts
         LocalDateTime last7Days = LocalDateTime.now().minusDays(7);
-        LocalDateTime last30Days = LocalDateTime.now().minusDays(30);
         
-        long recentUsers = userRepository.countByCreatedAtAfter(last7Days);
-        long recentDeployments = deployedPortfolioRepository.countByDateRange(last7Days, LocalDateTime.now()).size();
-        long recentActivities = activityLogRepository.countByDateRange(last7Days, LocalDateTime.now());
+        // Independent server-side pipelines, run side by side
+        CompletableFuture<Document> userCounts = CompletableFuture.supplyAsync(() -> facets(User.class,
+                Aggregation.facet(Aggregation.count().as("count")).as("total")
+                        .and(Aggregation.match(Criteria.where("enabled").is(true)), Aggregation.count().as("count")).as("active")
+                        .and(Aggregation.match(Criteria.where("createdAt").gt(last7Days)), Aggregation.count().as("count")).as("recent")),
+                dashboardExecutor);
+        CompletableFuture<Document> deploymentCounts = CompletableFuture.supplyAsync(() -> facets(DeployedPortfolio.class,
+                Aggregation.facet(
+                                Aggregation.match(Criteria.where("isActive").is(true).and("status").is(DeployedPortfolio.DeploymentStatus.DEPLOYED)),
+                                Aggregation.count().as("count")).as("active")
+                        .and(Aggregation.match(Criteria.where("createdAt").gte(last7Days)), Aggregation.count().as("count")).as("recent")
+                        .and(Aggregation.group("platform").count().as("count")).as("platforms")),
+                dashboardExecutor);
+        CompletableFuture<Long> totalTemplates = CompletableFuture.supplyAsync(templateRepository::countByIsActiveTrue, dashboardExecutor);
+        CompletableFuture<Long> totalBadges = CompletableFuture.supplyAsync(badgeRepository::count, dashboardExecutor);
+        // Activity counts come from the rollups rather than scanning the logs
+        CompletableFuture<ActivityRollup> recentActivity = CompletableFuture.supplyAsync(
+                () -> activityRollupService.sumSince(last7Days), dashboardExecutor);
+        CompletableFuture<ActivityRollup> activityTotals = CompletableFuture.supplyAsync(
+                activityRollupService::getTotals, dashboardExecutor);
+        
+        Document users = await(userCounts);
+        Document deployments = await(deploymentCounts);
+        ActivityRollup totals = await(activityTotals);
         
         // Top activity types
         Map<String, Long> topActivityTypes = new HashMap<>();
-        for (ActivityLog.ActivityType type : ActivityLog.ActivityType.values()) {
-            long count = activityLogRepository.countByType(type);
-            if (count > 0) {
-                topActivityTypes.put(type.name(), count);
-            }
+        if (totals.getActivityTypes() != null) {
+            totals.getActivityTypes().forEach((type, count) -> {
+                if (count > 0) {
+                    topActivityTypes.put(type, count);
+                }
+            });
         }
         
         // Platform usage stats
         Map<String, Long> platformStats = new HashMap<>();
-        for (DeployedPortfolio.DeploymentPlatform platform : DeployedPortfolio.DeploymentPlatform.values()) {
-            long count = deployedPortfolioRepository.countByPlatform(platform);
-            if (count > 0) {
-                platformStats.put(platform.name(), count);
+        for (Document platform : deployments.getList("platforms", Document.class, List.of())) {
+            if (platform.get("_id") != null) {
+                platformStats.put(platform.get("_id").toString(), platform.get("count", Number.class).longValue());
             }
         }
         
         return AdminDashboardStats.builder()
-                .totalUsers(totalUsers)
-                .activeUsers(activeUsers)
-                .totalDeployments(totalDeployments)
-                .totalTemplates(totalTemplates)
-                .totalBadges(totalBadges)
-                .recentUsers(recentUsers)
-                .recentDeployments(recentDeployments)
-                .recentActivities(recentActivities)
+                .totalUsers(facetCount(users, "total"))
+                .activeUsers(facetCount(users, "active"))
+                .totalDeployments(facetCount(deployments, "active"))
+                .totalTemplates(await(totalTemplates))
+                .totalBadges(await(totalBadges))
+                .recentUsers(facetCount(users, "recent"))
+                .recentDeployments(facetCount(deployments, "recent"))
+                .recentActivities(await(recentActivity).getActivities())
                 .topActivityTypes(topActivityTypes)
                 .platformStats(platformStats)
                 .lastUpdated(LocalDateTime.now())
                 .build();
     }
     
+    private Document facets(Class<?> entity, FacetOperation facet) {
+        Document result = mongoTemplate.aggregate(Aggregation.newAggregation(facet), entity, Document.class)
+                .getUniqueMappedResult();
+        return result != null ? result : new Document();
+    }
+    
+    private static long facetCount(Document facets, String name) {
+        List<Document> rows = facets.getList(name, Document.class, List.of());
+        return rows.isEmpty() ? 0 : rows.get(0).get("count", Number.class).longValue();
+    }
+    
+    private boolean isFresh(CompletableFuture<AdminDashboardStats> stats) {
+        return !stats.isCompletedExceptionally()
+                && stats.join().getLastUpdated().isAfter(LocalDateTime.now().minusSeconds(dashboardCacheTtlSeconds));
+    }
+    
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    @PreDestroy
+    public void shutdownDashboardExecutor() {
+        dashboardExecutor.shutdown();
+    }
+    
     public Page<User> getAllUsers(Pageable pageable) {
         return userRepository.findAllByOrderByCreatedAtDesc(pageable);
     }
@@ -115,11 +220,14 @@ public class AdminService {
                 .iconUrl(request.getIconUrl())
                 .category(request.getCategory())
                 .pointsRequired(request.getPointsRequired())
+                .triggerStat(request.getTriggerStat())
+                .threshold(request.getThreshold())
                 .isActive(request.isActive())
                 .createdAt(LocalDateTime.now())
                 .build();
         
         badge = badgeRepository.save(badge);
+        badgeRuleEngine.invalidateCatalog();
         
         activityLogService.logActivity(admin, ActivityLog.ActivityType.ADMIN_ACTION,
                 "Created badge: " + badge.getName(), "badge", badge.getId());
@@ -139,9 +247,12 @@ public class AdminService {
         badge.setIconUrl(request.getIconUrl());
         badge.setCategory(request.getCategory());
         badge.setPointsRequired(request.getPointsRequired());
+        badge.setTriggerStat(request.getTriggerStat());
+        badge.setThreshold(request.getThreshold());
         badge.setIsActive(request.isActive());
         
         badge = badgeRepository.save(badge);
+        badgeRuleEngine.invalidateCatalog();
         
         activityLogService.logActivity(admin, ActivityLog.ActivityType.ADMIN_ACTION,
                 "Updated badge: " + badge.getName(), "badge", badge.getId());
@@ -158,16 +269,14 @@ public class AdminService {
         Badge badge = badgeOpt.get();
         badge.setIsActive(false);
         badgeRepository.save(badge);
+        badgeRuleEngine.invalidateCatalog();
         
         activityLogService.logActivity(admin, ActivityLog.ActivityType.ADMIN_ACTION,
                 "Deleted badge: " + badge.getName(), "badge", badge.getId());
     }
     
     public List<UserStatsAggregated> getLeaderboard(int limit) {
-        List<UserStats> allStats = userStatsRepository.findAllByOrderByTotalPointsDesc();
-        
-        return allStats.stream()
-                .limit(limit)
+        return gamificationService.getLeaderboard(limit).stream()
                 .map(this::convertToAggregated)
                 .toList();
     }
@@ -182,6 +291,7 @@ public class AdminService {
         Role oldRole = user.getRole();
         user.setRole(newRole);
         userRepository.save(user);
+        principalCache.evict(user);
         
         activityLogService.logActivity(admin, ActivityLog.ActivityType.ADMIN_ACTION,
                 "Updated user role from " + oldRole + " to " + newRole,
@@ -198,77 +308,73 @@ public class AdminService {
         boolean oldStatus = user.isEnabled();
         user.setEnabled(!oldStatus);
         userRepository.save(user);
+        principalCache.evict(user);
         
         activityLogService.logActivity(admin, ActivityLog.ActivityType.ADMIN_ACTION,
                 "Toggled user status from " + oldStatus + " to " + !oldStatus,
                 "user", userId, String.valueOf(oldStatus), String.valueOf(!oldStatus));
     }
     
-    public byte[] exportUsersCsv() {
+    public void exportUsersCsv(Writer writer) {
         log.info("Exporting users to CSV");
         
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-             PrintWriter writer = new PrintWriter(baos)) {
-            
+        Query query = new Query();
+        query.fields().include("username", "email", "firstName", "lastName", "role", "enabled", "createdAt");
+        
+        try (Stream<User> users = mongoTemplate.stream(query, User.class)) {
             // CSV Header
-            writer.println("ID,Username,Email,First Name,Last Name,Role,Enabled,Created At,Last Login");
+            writer.write("ID,Username,Email,First Name,Last Name,Role,Enabled,Created At,Last Login\n");
             
-            // User data
-            List<User> users = userRepository.findAll();
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            
-            for (User user : users) {
-                writer.printf("%s,%s,%s,%s,%s,%s,%s,%s,%s%n",
-                        escapeCSV(user.getId()),
-                        escapeCSV(user.getUsername()),
-                        escapeCSV(user.getEmail()),
-                        escapeCSV(user.getFirstName()),
-                        escapeCSV(user.getLastName()),
-                        escapeCSV(user.getRole().toString()),
+            for (User user : (Iterable<User>) users::iterator) {
+                writeCsvRow(writer,
+                        user.getId(),
+                        user.getUsername(),
+                        user.getEmail(),
+                        user.getFirstName(),
+                        user.getLastName(),
+                        user.getRole(),
                         user.isEnabled(),
-                        user.getCreatedAt().format(formatter),
+                        user.getCreatedAt() != null ? user.getCreatedAt().format(CSV_DATE_FORMAT) : "",
                         "N/A" // Last login would need to be tracked separately
                 );
             }
             
-            writer.flush();
-            return baos.toByteArray();
-            
         } catch (Exception e) {
             log.error("Failed to export users CSV", e);
             throw new RuntimeException("Failed to export users CSV", e);
         }
     }
     
-    public byte[] exportActivitiesCsv(LocalDateTime startDate, LocalDateTime endDate) {
+    public void exportActivitiesCsv(LocalDateTime startDate, LocalDateTime endDate, Writer writer) {
         log.info("Exporting activities to CSV for date range: {} to {}", startDate, endDate);
         
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-             PrintWriter writer = new PrintWriter(baos)) {
-            
+        // Raw documents, so the user reference is not resolved once per row
+        Query query = Query.query(Criteria.where("timestamp").gte(startDate).lte(endDate));
+        query.fields().include("user", "action", "type", "description", "entityType", "entityId", "ipAddress", "timestamp");
+        Map<Object, String> emails = lookupCache();
+        
+        try (Stream<Document> activities = mongoTemplate.stream(query, Document.class,
+                mongoTemplate.getCollectionName(ActivityLog.class))) {
             // CSV Header
-            writer.println("ID,User,Action,Type,Description,Entity Type,Entity ID,IP Address,Timestamp");
+            writer.write("ID,User,Action,Type,Description,Entity Type,Entity ID,IP Address,Timestamp\n");
             
-            // Activity data
-            List<ActivityLog> activities = activityLogRepository.findByUserAndDateRange(null, startDate, endDate);
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            
-            for (ActivityLog activity : activities) {
-                writer.printf("%s,%s,%s,%s,%s,%s,%s,%s,%s%n",
-                        escapeCSV(activity.getId()),
-                        activity.getUser() != null ? escapeCSV(activity.getUser().getEmail()) : "System",
-                        escapeCSV(activity.getAction()),
-                        escapeCSV(activity.getType().toString()),
-                        escapeCSV(activity.getDescription()),
-                        escapeCSV(activity.getEntityType()),
-                        escapeCSV(activity.getEntityId()),
-                        escapeCSV(activity.getIpAddress()),
-                        activity.getTimestamp().format(formatter)
-                );
-            }
-            
-            writer.flush();
-            return baos.toByteArray();
+            forEachBatch(activities, batch -> {
+                Map<Object, String> batchEmails = resolve(batch, "user", User.class, "email", emails);
+                for (Document activity : batch) {
+                    String email = referenced(activity.get("user"), batchEmails);
+                    writeCsvRow(writer,
+                            activity.get("_id"),
+                            email != null ? email : "System",
+                            activity.getString("action"),
+                            activity.getString("type"),
+                            activity.getString("description"),
+                            activity.getString("entityType"),
+                            activity.getString("entityId"),
+                            activity.getString("ipAddress"),
+                            formatDate(activity.getDate("timestamp"), "")
+                    );
+                }
+            });
             
         } catch (Exception e) {
             log.error("Failed to export activities CSV", e);
@@ -276,36 +382,41 @@ public class AdminService {
         }
     }
     
-    public byte[] exportDeploymentsCsv() {
+    public void exportDeploymentsCsv(Writer writer) {
         log.info("Exporting deployments to CSV");
         
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-             PrintWriter writer = new PrintWriter(baos)) {
-            
+        Query query = new Query();
+        query.fields().include("user", "template", "title", "publicUrl", "status", "platform", "viewCount",
+                "createdAt", "deployedAt");
+        Map<Object, String> emails = lookupCache();
+        Map<Object, String> templateNames = lookupCache();
+        
+        try (Stream<Document> deployments = mongoTemplate.stream(query, Document.class,
+                mongoTemplate.getCollectionName(DeployedPortfolio.class))) {
             // CSV Header
-            writer.println("ID,User,Template,Title,Public URL,Status,Platform,View Count,Created At,Deployed At");
-            
-            // Deployment data
-            List<DeployedPortfolio> deployments = deployedPortfolioRepository.findAll();
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            
-            for (DeployedPortfolio deployment : deployments) {
-                writer.printf("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s%n",
-                        escapeCSV(deployment.getId()),
-                        deployment.getUser() != null ? escapeCSV(deployment.getUser().getEmail()) : "Unknown",
-                        deployment.getTemplate() != null ? escapeCSV(deployment.getTemplate().getName()) : "Unknown",
-                        escapeCSV(deployment.getTitle()),
-                        escapeCSV(deployment.getPublicUrl()),
-                        escapeCSV(deployment.getStatus().toString()),
-                        escapeCSV(deployment.getPlatform().toString()),
-                        deployment.getViewCount(),
-                        deployment.getCreatedAt().format(formatter),
-                        deployment.getDeployedAt() != null ? deployment.getDeployedAt().format(formatter) : "Not deployed"
-                );
-            }
+            writer.write("ID,User,Template,Title,Public URL,Status,Platform,View Count,Created At,Deployed At\n");
             
-            writer.flush();
-            return baos.toByteArray();
+            forEachBatch(deployments, batch -> {
+                Map<Object, String> batchEmails = resolve(batch, "user", User.class, "email", emails);
+                Map<Object, String> batchTemplateNames = resolve(batch, "template", PortfolioTemplate.class, "name",
+                        templateNames);
+                for (Document deployment : batch) {
+                    String email = referenced(deployment.get("user"), batchEmails);
+                    String templateName = referenced(deployment.get("template"), batchTemplateNames);
+                    writeCsvRow(writer,
+                            deployment.get("_id"),
+                            email != null ? email : "Unknown",
+                            templateName != null ? templateName : "Unknown",
+                            deployment.getString("title"),
+                            deployment.getString("publicUrl"),
+                            deployment.getString("status"),
+                            deployment.getString("platform"),
+                            deployment.get("viewCount"),
+                            formatDate(deployment.getDate("createdAt"), ""),
+                            formatDate(deployment.getDate("deployedAt"), "Not deployed")
+                    );
+                }
+            });
             
         } catch (Exception e) {
             log.error("Failed to export deployments CSV", e);
@@ -313,6 +424,97 @@ public class AdminService {
         }
     }
     
+    private void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCSV(values[i] != null ? values[i].toString() : null));
+        }
+        writer.write('\n');
+    }
+    
+    private static void forEachBatch(Stream<Document> rows, BatchWriter batchWriter) throws IOException {
+        List<Document> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+        for (Document row : (Iterable<Document>) rows::iterator) {
+            batch.add(row);
+            if (batch.size() == EXPORT_BATCH_SIZE) {
+                batchWriter.write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batchWriter.write(batch);
+        }
+    }
+    
+    /**
+     * Resolves one field of the documents a batch references, by id. Recent answers come from
+     * the cache, the rest from a single {@code $in} query; a missing document resolves to "".
+     */
+    private Map<Object, String> resolve(List<Document> batch, String reference, Class<?> entity, String field,
+                                        Map<Object, String> cache) {
+        Map<Object, String> resolved = new HashMap<>();
+        Set<Object> missing = new HashSet<>();
+        for (Document row : batch) {
+            Object id = referencedId(row.get(reference));
+            if (id == null || resolved.containsKey(id)) {
+                continue;
+            }
+            String known = cache.get(id);
+            if (known != null) {
+                resolved.put(id, known);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+        
+        Query query = Query.query(Criteria.where("_id").in(missing));
+        query.fields().include(field);
+        for (Document found : mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(entity))) {
+            String value = found.getString(field);
+            resolved.put(found.get("_id"), value != null ? value : "");
+        }
+        for (Object id : missing) {
+            cache.put(id, resolved.computeIfAbsent(id, key -> ""));
+        }
+        return resolved;
+    }
+    
+    private static String referenced(Object reference, Map<Object, String> resolved) {
+        String value = resolved.get(referencedId(reference));
+        return value == null || value.isEmpty() ? null : value;
+    }
+    
+    // Raw reads decode a stored DBRef as a plain {$ref, $id} document
+    private static Object referencedId(Object reference) {
+        if (reference instanceof DBRef dbRef) {
+            return dbRef.getId();
+        }
+        if (reference instanceof Document document) {
+            return document.get("$id");
+        }
+        return null;
+    }
+    
+    private static Map<Object, String> lookupCache() {
+        return new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, String> eldest) {
+                return size() > EXPORT_LOOKUP_CACHE_SIZE;
+            }
+        };
+    }
+    
+    private static String formatDate(Date date, String fallback) {
+        return date != null
+                ? LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()).format(CSV_DATE_FORMAT)
+                : fallback;
+    }
+    
     private UserStatsAggregated convertToAggregated(UserStats stats) {
         return UserStatsAggregated.builder()
                 .userId(stats.getUser().getId())
@@ -334,4 +536,8 @@ public class AdminService {
         }
         return value;
     }
+    
+    private interface BatchWriter {
+        void write(List<Document> batch) throws IOException;
+    }
 }
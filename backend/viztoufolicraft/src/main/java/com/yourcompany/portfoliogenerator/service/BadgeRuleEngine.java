@@ -0,0 +1,234 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.yourcompany.portfoliogenerator.model.Badge;
+import com.yourcompany.portfoliogenerator.model.User;
+import com.yourcompany.portfoliogenerator.model.UserBadge;
+import com.yourcompany.portfoliogenerator.model.UserStats;
+import com.yourcompany.portfoliogenerator.repository.BadgeRepository;
+import com.yourcompany.portfoliogenerator.repository.UserBadgeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which badges a user earns from their stats. Active badges are cached and compiled
+ * into threshold-sorted rules per {@link Badge.TriggerStat}; an activity only evaluates the
+ * rules of the stats it can change. Badges a user already holds are tracked in a per-user
+ * bitset, so they are skipped without a query.
+ */
+@Component
+@Slf4j
+public class BadgeRuleEngine {
+
+    private static final Set<Badge.TriggerStat> ALWAYS_CHANGED = EnumSet.of(
+            Badge.TriggerStat.TOTAL_POINTS, Badge.TriggerStat.LEVEL, Badge.TriggerStat.CURRENT_STREAK);
+
+    // Stats each activity changes besides points, level and streak
+    private static final Map<String, Set<Badge.TriggerStat>> ACTIVITY_STATS = Map.of(
+            "RESUME_GENERATED", EnumSet.of(Badge.TriggerStat.RESUMES_GENERATED),
+            "PORTFOLIO_DEPLOYED", EnumSet.of(Badge.TriggerStat.PORTFOLIOS_CREATED),
+            "SOCIAL_CONNECTED", EnumSet.of(Badge.TriggerStat.SOCIAL_ACCOUNTS_CONNECTED, Badge.TriggerStat.PROFILE_COMPLETION),
+            "PROFILE_COMPLETED", EnumSet.of(Badge.TriggerStat.PROFILE_COMPLETION));
+
+    // Default badges stored before rules were part of the badge document
+    private static final Map<String, Rule> LEGACY_RULES = Map.of(
+            "Profile Master", new Rule(null, Badge.TriggerStat.PROFILE_COMPLETION, 100, -1),
+            "First Resume", new Rule(null, Badge.TriggerStat.RESUMES_GENERATED, 1, -1),
+            "Resume Expert", new Rule(null, Badge.TriggerStat.RESUMES_GENERATED, 10, -1),
+            "Rising Star", new Rule(null, Badge.TriggerStat.LEVEL, 5, -1),
+            "Portfolio Pro", new Rule(null, Badge.TriggerStat.LEVEL, 10, -1),
+            "Week Warrior", new Rule(null, Badge.TriggerStat.CURRENT_STREAK, 7, -1),
+            "Monthly Master", new Rule(null, Badge.TriggerStat.CURRENT_STREAK, 30, -1),
+            "Social Connector", new Rule(null, Badge.TriggerStat.SOCIAL_ACCOUNTS_CONNECTED, 2, -1));
+
+    private final BadgeRepository badgeRepository;
+    private final UserBadgeRepository userBadgeRepository;
+
+    // Bit positions are never reused, so cached user bitsets survive catalog reloads
+    private final Map<String, Integer> bitsByBadgeId = new ConcurrentHashMap<>();
+    private final AtomicInteger nextBit = new AtomicInteger();
+
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private volatile Catalog catalog;
+
+    private final Map<String, BitSet> earnedByUser;
+
+    public BadgeRuleEngine(BadgeRepository badgeRepository, UserBadgeRepository userBadgeRepository,
+                           @Value("${app.gamification.earned-badges.max-users:10000}") int maxUsers) {
+        this.badgeRepository = badgeRepository;
+        this.userBadgeRepository = userBadgeRepository;
+        this.earnedByUser = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BitSet> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    /**
+     * Active badges, in the order the catalog is shown.
+     */
+    public List<Badge> activeBadges() {
+        return catalog().badges;
+    }
+
+    public void invalidateCatalog() {
+        catalogVersion.incrementAndGet();
+        log.debug("Badge catalog invalidated");
+    }
+
+    /**
+     * Badges the user qualifies for after an activity and does not hold yet, in threshold order.
+     */
+    public List<Badge> evaluate(User user, UserStats stats, String activityType) {
+        Catalog current = catalog();
+        BitSet earned = earnedBadges(user);
+
+        List<Badge> candidates = new ArrayList<>();
+        for (Badge.TriggerStat stat : changedStats(activityType)) {
+            List<Rule> rules = current.rulesByStat.get(stat);
+            if (rules == null) {
+                continue;
+            }
+            int value = valueOf(stat, stats);
+            for (Rule rule : rules) {
+                if (rule.threshold > value) {
+                    break;
+                }
+                synchronized (earned) {
+                    if (earned.get(rule.bit)) {
+                        continue;
+                    }
+                }
+                candidates.add(rule.badge);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Records that the user holds the badge. Returns false if they already did.
+     */
+    public boolean markEarned(User user, Badge badge) {
+        BitSet earned = earnedBadges(user);
+        int bit = bitOf(badge.getId());
+        synchronized (earned) {
+            if (earned.get(bit)) {
+                return false;
+            }
+            earned.set(bit);
+            return true;
+        }
+    }
+
+    public void unmarkEarned(User user, Badge badge) {
+        BitSet earned = earnedBadges(user);
+        synchronized (earned) {
+            earned.clear(bitOf(badge.getId()));
+        }
+    }
+
+    private Set<Badge.TriggerStat> changedStats(String activityType) {
+        Set<Badge.TriggerStat> extra = ACTIVITY_STATS.get(activityType);
+        if (extra == null) {
+            return ALWAYS_CHANGED;
+        }
+        Set<Badge.TriggerStat> stats = EnumSet.copyOf(ALWAYS_CHANGED);
+        stats.addAll(extra);
+        return stats;
+    }
+
+    private Catalog catalog() {
+        long version = catalogVersion.get();
+        Catalog current = catalog;
+        if (current != null && current.version == version) {
+            return current;
+        }
+
+        // A reload racing with an invalidation keeps the old version and compiles again next time
+        current = compile(version);
+        catalog = current;
+        return current;
+    }
+
+    private Catalog compile(long version) {
+        List<Badge> badges = List.copyOf(badgeRepository.findByIsActiveTrueOrderByRarityLevelDescCreatedAtAsc());
+
+        Map<Badge.TriggerStat, List<Rule>> rulesByStat = new EnumMap<>(Badge.TriggerStat.class);
+        for (Badge badge : badges) {
+            Badge.TriggerStat stat = badge.getTriggerStat();
+            Integer threshold = badge.getThreshold();
+            if (stat == null) {
+                Rule legacy = LEGACY_RULES.get(badge.getName());
+                if (legacy == null) {
+                    continue;
+                }
+                stat = legacy.stat;
+                threshold = legacy.threshold;
+            }
+            rulesByStat.computeIfAbsent(stat, key -> new ArrayList<>())
+                    .add(new Rule(badge, stat, threshold != null ? threshold : 0, bitOf(badge.getId())));
+        }
+        rulesByStat.values().forEach(rules -> rules.sort(Comparator.comparingInt(Rule::threshold)));
+
+        log.info("Compiled badge catalog with {} active badges", badges.size());
+        return new Catalog(version, badges, rulesByStat);
+    }
+
+    private BitSet earnedBadges(User user) {
+        synchronized (earnedByUser) {
+            BitSet cached = earnedByUser.get(user.getId());
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        BitSet loaded = new BitSet();
+        for (UserBadge userBadge : userBadgeRepository.findByUserOrderByEarnedAtDesc(user)) {
+            if (userBadge.getBadge() != null) {
+                loaded.set(bitOf(userBadge.getBadge().getId()));
+            }
+        }
+
+        synchronized (earnedByUser) {
+            BitSet existing = earnedByUser.putIfAbsent(user.getId(), loaded);
+            return existing != null ? existing : loaded;
+        }
+    }
+
+    private int bitOf(String badgeId) {
+        return bitsByBadgeId.computeIfAbsent(badgeId, id -> nextBit.getAndIncrement());
+    }
+
+    private static int valueOf(Badge.TriggerStat stat, UserStats stats) {
+        Integer value = switch (stat) {
+            case TOTAL_POINTS -> stats.getTotalPoints();
+            case LEVEL -> stats.getLevel();
+            case CURRENT_STREAK -> stats.getCurrentStreak();
+            case RESUMES_GENERATED -> stats.getResumesGenerated();
+            case PORTFOLIOS_CREATED -> stats.getPortfoliosCreated();
+            case SOCIAL_ACCOUNTS_CONNECTED -> stats.getSocialAccountsConnected();
+            case PROFILE_COMPLETION -> stats.getProfileCompletionPercentage();
+        };
+        return value != null ? value : 0;
+    }
+
+    private record Rule(Badge badge, Badge.TriggerStat stat, int threshold, int bit) {
+    }
+
+    private record Catalog(long version, List<Badge> badges, Map<Badge.TriggerStat, List<Rule>> rulesByStat) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 over an ordered list of build inputs. Each value is length-prefixed so that
+ * shifting text between neighbouring fields changes the fingerprint.
+ */
+public final class ContentFingerprint {
+
+    private final MessageDigest digest;
+
+    private ContentFingerprint() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static ContentFingerprint create() {
+        return new ContentFingerprint();
+    }
+
+    public ContentFingerprint add(Object value) {
+        if (value == null) {
+            // Distinct from the empty string
+            digest.update(new byte[]{-1, -1, -1, -1});
+            return this;
+        }
+        byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+        digest.update(new byte[]{(byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length});
+        digest.update(bytes);
+        return this;
+    }
+
+    public String toHex() {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,208 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.yourcompany.portfoliogenerator.model.DeployedPortfolio;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded worker pool for portfolio deployments. Submissions beyond the queue capacity or the
+ * per-user limit are rejected up front instead of tying up request threads, and every status
+ * transition is broadcast to subscribers of the deployment. Jobs for one deployment never run
+ * side by side: a job submitted while another is running waits as its follow-up, and a newer
+ * submission replaces a follow-up that has not started yet.
+ */
+@Component
+@Slf4j
+public class DeploymentJobQueue {
+
+    private static final Set<DeployedPortfolio.DeploymentStatus> TERMINAL_STATUSES = EnumSet.of(
+            DeployedPortfolio.DeploymentStatus.DEPLOYED,
+            DeployedPortfolio.DeploymentStatus.FAILED,
+            DeployedPortfolio.DeploymentStatus.DISABLED);
+
+    @Value("${app.deployment.workers:4}")
+    private int workers;
+
+    @Value("${app.deployment.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.deployment.max-concurrent-per-user:2}")
+    private int maxConcurrentPerUser;
+
+    private final Map<String, Integer> activeJobsByUser = new ConcurrentHashMap<>();
+    private final Map<String, Sinks.Many<DeployedPortfolio.DeploymentStatus>> statusSinks = new ConcurrentHashMap<>();
+
+    // Guarded by running
+    private final Set<String> running = new HashSet<>();
+    private final Map<String, FollowUp> followUps = new HashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofVirtual().name("deployment-worker-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("Deployment queue started with {} workers and capacity {}", workers, queueCapacity);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Deployment workers did not finish in time, {} jobs abandoned", executor.getQueue().size());
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues a deployment job.
+     *
+     * @throws IllegalStateException when the user already has too many jobs in flight or the queue is full
+     */
+    public void submit(String userId, String deploymentId, Runnable job) {
+        if (!acquireUserSlot(userId)) {
+            throw new IllegalStateException("Too many deployments in progress, try again once they finish");
+        }
+
+        FollowUp replaced;
+        synchronized (running) {
+            statusSinks.computeIfAbsent(deploymentId, id -> Sinks.many().replay().latest());
+            if (running.contains(deploymentId)) {
+                replaced = followUps.put(deploymentId, new FollowUp(userId, job));
+            } else {
+                try {
+                    execute(userId, deploymentId, job);
+                } catch (RejectedExecutionException e) {
+                    releaseUserSlot(userId);
+                    statusSinks.remove(deploymentId);
+                    throw new IllegalStateException("Deployment queue is full, try again later");
+                }
+                running.add(deploymentId);
+                return;
+            }
+        }
+
+        if (replaced != null) {
+            // The newer job builds the latest content anyway
+            releaseUserSlot(replaced.userId());
+        }
+    }
+
+    private void execute(String userId, String deploymentId, Runnable job) {
+        executor.execute(() -> {
+            try {
+                job.run();
+            } catch (Exception e) {
+                log.error("Deployment job {} failed unexpectedly", deploymentId, e);
+            } finally {
+                releaseUserSlot(userId);
+                runFollowUp(deploymentId);
+            }
+        });
+    }
+
+    private void runFollowUp(String deploymentId) {
+        synchronized (running) {
+            FollowUp next = followUps.remove(deploymentId);
+            if (next == null) {
+                running.remove(deploymentId);
+                // A job that gave up without a final status still ends the stream
+                Sinks.Many<DeployedPortfolio.DeploymentStatus> sink = statusSinks.remove(deploymentId);
+                if (sink != null) {
+                    sink.tryEmitComplete();
+                }
+                return;
+            }
+
+            statusSinks.computeIfAbsent(deploymentId, id -> Sinks.many().replay().latest());
+            try {
+                execute(next.userId(), deploymentId, next.job());
+            } catch (RejectedExecutionException e) {
+                log.warn("Deployment queue full, dropping queued rebuild of {}", deploymentId);
+                releaseUserSlot(next.userId());
+                running.remove(deploymentId);
+            }
+        }
+    }
+
+    public void publish(String deploymentId, DeployedPortfolio.DeploymentStatus status) {
+        Sinks.Many<DeployedPortfolio.DeploymentStatus> sink = statusSinks.get(deploymentId);
+        if (sink == null) {
+            return;
+        }
+
+        sink.tryEmitNext(status);
+        if (!TERMINAL_STATUSES.contains(status)) {
+            return;
+        }
+
+        FollowUp dropped = null;
+        synchronized (running) {
+            if (status == DeployedPortfolio.DeploymentStatus.DISABLED) {
+                // Nothing left to rebuild
+                dropped = followUps.remove(deploymentId);
+            } else if (followUps.containsKey(deploymentId)) {
+                // Subscribers follow the queued rebuild through to its own end
+                return;
+            }
+            sink.tryEmitComplete();
+            statusSinks.remove(deploymentId, sink);
+        }
+        if (dropped != null) {
+            releaseUserSlot(dropped.userId());
+        }
+    }
+
+    public Flux<DeployedPortfolio.DeploymentStatus> statusUpdates(String deploymentId) {
+        Sinks.Many<DeployedPortfolio.DeploymentStatus> sink = statusSinks.get(deploymentId);
+        return sink != null ? sink.asFlux() : Flux.empty();
+    }
+
+    public boolean isTerminal(DeployedPortfolio.DeploymentStatus status) {
+        return TERMINAL_STATUSES.contains(status);
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private boolean acquireUserSlot(String userId) {
+        boolean[] acquired = {false};
+        activeJobsByUser.compute(userId, (id, active) -> {
+            int current = active != null ? active : 0;
+            if (current >= maxConcurrentPerUser) {
+                return active;
+            }
+            acquired[0] = true;
+            return current + 1;
+        });
+        return acquired[0];
+    }
+
+    private void releaseUserSlot(String userId) {
+        activeJobsByUser.computeIfPresent(userId, (id, active) -> active <= 1 ? null : active - 1);
+    }
+
+    private record FollowUp(String userId, Runnable job) {
+    }
+}
@@ -2,10 +2,12 @@ package com.yourcompany.portfoliogenerator.service;
 
 import com.yourcompany.portfoliogenerator.model.*;
 import com.yourcompany.portfoliogenerator.repository.*;
+import com.yourcompany.portfoliogenerator.template.StoredTemplateResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.thymeleaf.TemplateEngine;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,6 +24,7 @@ public class EnhancedTemplateService {
     private final ResumeTemplateRepository resumeTemplateRepository;
     private final UserRepository userRepository;
     private final GamificationService gamificationService;
+    private final TemplateEngine templateEngine;
     
     // Portfolio Template Management
     public List<PortfolioTemplate> getAllPortfolioTemplates() {
@@ -63,6 +66,7 @@ public class EnhancedTemplateService {
     public PortfolioTemplate updatePortfolioTemplate(Long id, PortfolioTemplate templateUpdates) {
         PortfolioTemplate existingTemplate = portfolioTemplateRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Template not found: " + id));
+        String previousTemplateName = StoredTemplateResolver.portfolioTemplateName(existingTemplate);
         
         // Update fields
         if (templateUpdates.getName() != null) existingTemplate.setName(templateUpdates.getName());
@@ -77,6 +81,7 @@ public class EnhancedTemplateService {
         existingTemplate.setUpdatedAt(LocalDateTime.now());
         
         PortfolioTemplate savedTemplate = portfolioTemplateRepository.save(existingTemplate);
+        templateEngine.clearTemplateCacheFor(previousTemplateName);
         log.info("Updated portfolio template: {}", savedTemplate.getName());
         return savedTemplate;
     }
@@ -86,9 +91,11 @@ public class EnhancedTemplateService {
         PortfolioTemplate template = portfolioTemplateRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Template not found: " + id));
         
+        String previousTemplateName = StoredTemplateResolver.portfolioTemplateName(template);
         template.setIsActive(false);
         template.setUpdatedAt(LocalDateTime.now());
         portfolioTemplateRepository.save(template);
+        templateEngine.clearTemplateCacheFor(previousTemplateName);
         
         log.info("Soft deleted portfolio template: {}", template.getName());
     }
@@ -181,6 +188,7 @@ public class EnhancedTemplateService {
     public ResumeTemplate updateResumeTemplate(Long id, ResumeTemplate templateUpdates) {
         ResumeTemplate existingTemplate = resumeTemplateRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Resume template not found: " + id));
+        String previousTemplateName = StoredTemplateResolver.resumeTemplateName(existingTemplate);
         
         // Update fields
         if (templateUpdates.getName() != null) existingTemplate.setName(templateUpdates.getName());
@@ -194,6 +202,7 @@ public class EnhancedTemplateService {
         existingTemplate.setUpdatedAt(LocalDateTime.now());
         
         ResumeTemplate savedTemplate = resumeTemplateRepository.save(existingTemplate);
+        templateEngine.clearTemplateCacheFor(previousTemplateName);
         log.info("Updated resume template: {}", savedTemplate.getName());
         return savedTemplate;
     }
@@ -203,9 +212,11 @@ public class EnhancedTemplateService {
         ResumeTemplate template = resumeTemplateRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Resume template not found: " + id));
         
+        String previousTemplateName = StoredTemplateResolver.resumeTemplateName(template);
         template.setIsActive(false);
         template.setUpdatedAt(LocalDateTime.now());
         resumeTemplateRepository.save(template);
+        templateEngine.clearTemplateCacheFor(previousTemplateName);
         
         log.info("Soft deleted resume template: {}", template.getName());
     }
@@ -4,12 +4,14 @@ import com.yourcompany.portfoliogenerator.model.*;
 import com.yourcompany.portfoliogenerator.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -24,6 +26,9 @@ public class GamificationService {
     private final UserBadgeRepository userBadgeRepository;
     private final UserProfileRepository userProfileRepository;
     private final GeneratedResumeRepository generatedResumeRepository;
+    private final LeaderboardIndex leaderboardIndex;
+    private final UserStatsWriteBehind userStatsWriteBehind;
+    private final BadgeRuleEngine badgeRuleEngine;
     
     // Points configuration
     private static final Map<String, Integer> ACTIVITY_POINTS = Map.of(
@@ -39,6 +44,12 @@ public class GamificationService {
     
     @Transactional
     public UserStats getUserStats(User user) {
+        // Stats with unflushed changes are newer in memory than in Mongo
+        return userStatsWriteBehind.current(user.getId())
+                .orElseGet(() -> loadUserStats(user));
+    }
+    
+    private UserStats loadUserStats(User user) {
         return userStatsRepository.findByUser(user)
                 .orElseGet(() -> createInitialUserStats(user));
     }
@@ -60,85 +71,48 @@ public class GamificationService {
                 .longestStreak(0)
                 .build();
         
-        return userStatsRepository.save(stats);
+        stats = userStatsRepository.save(stats);
+        leaderboardIndex.update(stats);
+        return stats;
     }
     
     @Transactional
     public void recordActivity(User user, String activityType) {
-        UserStats stats = getUserStats(user);
         Integer points = ACTIVITY_POINTS.getOrDefault(activityType, 10);
         
-        stats.addPoints(points);
-        stats.updateActivity();
+        // Profile lookups happen before the user's stats are locked
+        boolean socialConnected = "SOCIAL_CONNECTED".equals(activityType);
+        Integer socialConnections = socialConnected ? calculateSocialConnections(user) : null;
+        Integer profileCompletion = socialConnected ? calculateProfileCompletion(user) : null;
         
-        // Update specific counters
-        switch (activityType) {
-            case "RESUME_GENERATED" -> stats.setResumesGenerated(stats.getResumesGenerated() + 1);
-            case "PORTFOLIO_DEPLOYED" -> stats.setPortfoliosCreated(stats.getPortfoliosCreated() + 1);
-            case "SOCIAL_CONNECTED" -> {
-                stats.setSocialAccountsConnected(calculateSocialConnections(user));
-                stats.setProfileCompletionPercentage(calculateProfileCompletion(user));
+        // Applied in memory in event order, written back by the next flush
+        UserStats stats = userStatsWriteBehind.update(user, () -> loadUserStats(user), live -> {
+            live.addPoints(points);
+            live.updateActivity();
+            
+            // Update specific counters
+            switch (activityType) {
+                case "RESUME_GENERATED" -> live.setResumesGenerated(live.getResumesGenerated() + 1);
+                case "PORTFOLIO_DEPLOYED" -> live.setPortfoliosCreated(live.getPortfoliosCreated() + 1);
+                case "SOCIAL_CONNECTED" -> {
+                    live.setSocialAccountsConnected(socialConnections);
+                    live.setProfileCompletionPercentage(profileCompletion);
+                }
+                case "PROFILE_COMPLETED" -> live.setProfileCompletionPercentage(100);
             }
-            case "PROFILE_COMPLETED" -> stats.setProfileCompletionPercentage(100);
-        }
-        
-        userStatsRepository.save(stats);
+            
+            updateLeaderboardPosition(user, live);
+        });
         
-        // Check for new badges
+        // Check for new badges against the state right after this event
         checkAndAwardBadges(user, stats, activityType);
         
-        // Update leaderboard position
-        updateLeaderboardPosition(user, stats);
-        
         log.info("Activity recorded for user {}: {} (+{} points)", user.getUsername(), activityType, points);
     }
     
     @Transactional
     public void checkAndAwardBadges(User user, UserStats stats, String activityType) {
-        List<Badge> potentialBadges = new ArrayList<>();
-        
-        // Check milestone badges
-        if ("PROFILE_COMPLETED".equals(activityType)) {
-            badgeRepository.findByNameAndIsActiveTrue("Profile Master")
-                    .ifPresent(potentialBadges::add);
-        }
-        
-        if ("RESUME_GENERATED".equals(activityType)) {
-            if (stats.getResumesGenerated() == 1) {
-                badgeRepository.findByNameAndIsActiveTrue("First Resume")
-                        .ifPresent(potentialBadges::add);
-            } else if (stats.getResumesGenerated() == 10) {
-                badgeRepository.findByNameAndIsActiveTrue("Resume Expert")
-                        .ifPresent(potentialBadges::add);
-            }
-        }
-        
-        // Check level-based badges
-        if (stats.getLevel() == 5) {
-            badgeRepository.findByNameAndIsActiveTrue("Rising Star")
-                    .ifPresent(potentialBadges::add);
-        } else if (stats.getLevel() == 10) {
-            badgeRepository.findByNameAndIsActiveTrue("Portfolio Pro")
-                    .ifPresent(potentialBadges::add);
-        }
-        
-        // Check streak badges
-        if (stats.getCurrentStreak() == 7) {
-            badgeRepository.findByNameAndIsActiveTrue("Week Warrior")
-                    .ifPresent(potentialBadges::add);
-        } else if (stats.getCurrentStreak() == 30) {
-            badgeRepository.findByNameAndIsActiveTrue("Monthly Master")
-                    .ifPresent(potentialBadges::add);
-        }
-        
-        // Check social connection badges
-        if (stats.getSocialAccountsConnected() == 2) {
-            badgeRepository.findByNameAndIsActiveTrue("Social Connector")
-                    .ifPresent(potentialBadges::add);
-        }
-        
-        // Award new badges
-        for (Badge badge : potentialBadges) {
+        for (Badge badge : badgeRuleEngine.evaluate(user, stats, activityType)) {
             awardBadge(user, badge, activityType);
         }
     }
@@ -146,7 +120,7 @@ public class GamificationService {
     @Transactional
     public UserBadge awardBadge(User user, Badge badge, String reason) {
         // Check if user already has this badge
-        if (userBadgeRepository.existsByUserAndBadge(user, badge)) {
+        if (!badgeRuleEngine.markEarned(user, badge)) {
             log.debug("User {} already has badge {}", user.getUsername(), badge.getName());
             return null;
         }
@@ -160,12 +134,20 @@ public class GamificationService {
                 .isDisplayed(true)
                 .build();
         
-        userBadge = userBadgeRepository.save(userBadge);
+        try {
+            userBadge = userBadgeRepository.save(userBadge);
+        } catch (DuplicateKeyException e) {
+            // Awarded elsewhere since the earned badges were loaded
+            log.debug("User {} already has badge {}", user.getUsername(), badge.getName());
+            return null;
+        } catch (RuntimeException e) {
+            badgeRuleEngine.unmarkEarned(user, badge);
+            throw e;
+        }
         
         // Update user stats
-        UserStats stats = getUserStats(user);
-        stats.setBadgesEarned(stats.getBadgesEarned() + 1);
-        userStatsRepository.save(stats);
+        userStatsWriteBehind.update(user, () -> loadUserStats(user),
+                live -> live.setBadgesEarned(live.getBadgesEarned() + 1));
         
         log.info("Badge awarded to user {}: {} ({})", user.getUsername(), badge.getName(), reason);
         return userBadge;
@@ -180,29 +162,57 @@ public class GamificationService {
     }
     
     public List<Badge> getAllBadges() {
-        return badgeRepository.findByIsActiveTrueOrderByRarityLevelDescCreatedAtAsc();
+        return badgeRuleEngine.activeBadges();
     }
     
     public List<Badge> getBadgesByCategory(Badge.BadgeCategory category) {
-        return badgeRepository.findByCategoryAndIsActiveTrue(category);
+        return badgeRuleEngine.activeBadges().stream()
+                .filter(badge -> badge.getCategory() == category)
+                .toList();
     }
     
     public List<UserStats> getLeaderboard(int limit) {
-        return userStatsRepository.findAllOrderByTotalPointsDesc()
-                .stream()
-                .limit(limit)
-                .toList();
+        return loadRanked(leaderboardIndex.top(limit));
+    }
+    
+    /**
+     * The user's own stats with up to {@code radius} users ranked directly above and below.
+     */
+    public List<UserStats> getLeaderboardAround(User user, int radius) {
+        UserStats stats = getUserStats(user);
+        return loadRanked(leaderboardIndex.around(stats.getId(), radius));
+    }
+    
+    public Integer getUserRank(User user) {
+        return leaderboardIndex.rankOf(getUserStats(user).getId());
     }
     
     public List<UserStats> getStreakLeaderboard(int limit) {
         return userStatsRepository.findTopStreaks(limit);
     }
     
-    @Transactional
     public void updateLeaderboardPosition(User user, UserStats stats) {
-        Long rank = userStatsRepository.countUsersWithMorePoints(stats.getTotalPoints()) + 1;
-        stats.setRankPosition(rank.intValue());
-        userStatsRepository.save(stats);
+        leaderboardIndex.update(stats);
+        stats.setRankPosition(leaderboardIndex.rankOf(stats.getId()));
+    }
+    
+    // Loads stats for ranked ids, keeping the index order
+    private List<UserStats> loadRanked(List<String> statsIds) {
+        if (statsIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, UserStats> byId = new HashMap<>();
+        userStatsRepository.findAllById(statsIds).forEach(stats -> byId.put(stats.getId(), stats));
+        
+        List<UserStats> ranked = new ArrayList<>(statsIds.size());
+        for (String statsId : statsIds) {
+            UserStats stats = byId.get(statsId);
+            if (stats != null) {
+                stats.setRankPosition(leaderboardIndex.rankOf(stats.getId()));
+                ranked.add(stats);
+            }
+        }
+        return ranked;
     }
     
     public Map<String, Object> getGamificationDashboard(User user) {
@@ -213,13 +223,14 @@ public class GamificationService {
                 .toList();
         
         List<UserStats> leaderboard = getLeaderboard(10);
-        Long totalUsers = userStatsRepository.count();
+        int totalUsers = leaderboardIndex.size();
+        Integer rank = leaderboardIndex.rankOf(stats.getId());
         
         return Map.of(
             "userStats", stats,
             "recentBadges", recentBadges,
             "leaderboard", leaderboard,
-            "userRank", stats.getRankPosition() != null ? stats.getRankPosition() : totalUsers.intValue(),
+            "userRank", rank != null ? rank : totalUsers,
             "totalUsers", totalUsers,
             "progressToNextLevel", calculateLevelProgress(stats),
             "availableBadges", getAllBadges().size(),
@@ -299,6 +310,8 @@ public class GamificationService {
                     .badgeType(Badge.BadgeType.ACHIEVEMENT)
                     .category(Badge.BadgeCategory.PROFILE_COMPLETION)
                     .pointsRequired(100)
+                    .triggerStat(Badge.TriggerStat.PROFILE_COMPLETION)
+                    .threshold(100)
                     .rarityLevel(Badge.RarityLevel.UNCOMMON)
                     .colorCode("#007bff")
                     .build(),
@@ -309,6 +322,8 @@ public class GamificationService {
                     .badgeType(Badge.BadgeType.MILESTONE)
                     .category(Badge.BadgeCategory.RESUME_GENERATION)
                     .pointsRequired(30)
+                    .triggerStat(Badge.TriggerStat.RESUMES_GENERATED)
+                    .threshold(1)
                     .rarityLevel(Badge.RarityLevel.COMMON)
                     .colorCode("#17a2b8")
                     .build(),
@@ -319,6 +334,8 @@ public class GamificationService {
                     .badgeType(Badge.BadgeType.ACHIEVEMENT)
                     .category(Badge.BadgeCategory.RESUME_GENERATION)
                     .pointsRequired(300)
+                    .triggerStat(Badge.TriggerStat.RESUMES_GENERATED)
+                    .threshold(10)
                     .rarityLevel(Badge.RarityLevel.RARE)
                     .colorCode("#dc3545")
                     .build(),
@@ -329,6 +346,8 @@ public class GamificationService {
                     .badgeType(Badge.BadgeType.ACHIEVEMENT)
                     .category(Badge.BadgeCategory.SOCIAL_INTEGRATION)
                     .pointsRequired(50)
+                    .triggerStat(Badge.TriggerStat.SOCIAL_ACCOUNTS_CONNECTED)
+                    .threshold(2)
                     .rarityLevel(Badge.RarityLevel.UNCOMMON)
                     .colorCode("#6f42c1")
                     .build(),
@@ -339,6 +358,8 @@ public class GamificationService {
                     .badgeType(Badge.BadgeType.STREAK)
                     .category(Badge.BadgeCategory.COMMUNITY_ENGAGEMENT)
                     .pointsRequired(35)
+                    .triggerStat(Badge.TriggerStat.CURRENT_STREAK)
+                    .threshold(7)
                     .rarityLevel(Badge.RarityLevel.UNCOMMON)
                     .colorCode("#fd7e14")
                     .build(),
@@ -349,6 +370,8 @@ public class GamificationService {
                     .badgeType(Badge.BadgeType.STREAK)
                     .category(Badge.BadgeCategory.COMMUNITY_ENGAGEMENT)
                     .pointsRequired(150)
+                    .triggerStat(Badge.TriggerStat.CURRENT_STREAK)
+                    .threshold(30)
                     .rarityLevel(Badge.RarityLevel.EPIC)
                     .colorCode("#e83e8c")
                     .build(),
@@ -359,6 +382,8 @@ public class GamificationService {
                     .badgeType(Badge.BadgeType.MILESTONE)
                     .category(Badge.BadgeCategory.SKILL_DEVELOPMENT)
                     .pointsRequired(500)
+                    .triggerStat(Badge.TriggerStat.LEVEL)
+                    .threshold(5)
                     .rarityLevel(Badge.RarityLevel.RARE)
                     .colorCode("#ffc107")
                     .build(),
@@ -369,12 +394,15 @@ public class GamificationService {
                     .badgeType(Badge.BadgeType.MILESTONE)
                     .category(Badge.BadgeCategory.SKILL_DEVELOPMENT)
                     .pointsRequired(1000)
+                    .triggerStat(Badge.TriggerStat.LEVEL)
+                    .threshold(10)
                     .rarityLevel(Badge.RarityLevel.EPIC)
                     .colorCode("#6610f2")
                     .build()
         );
         
         badgeRepository.saveAll(defaultBadges);
+        badgeRuleEngine.invalidateCatalog();
         log.info("Initialized {} default badges", defaultBadges.size());
     }
 }
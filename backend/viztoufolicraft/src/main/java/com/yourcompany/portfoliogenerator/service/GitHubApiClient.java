@@ -0,0 +1,332 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.yourcompany.portfoliogenerator.config.IntegrationConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriBuilderFactory;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Conditional GETs against the GitHub API. The ETag of each successful response is remembered
+ * per URL; the next request for that URL sends {@code If-None-Match}, and a 304 answer is
+ * served from memory without decoding anything. GitHub does not count 304s against the rate
+ * limit. Single resources keep their decoded body. Pages of a listing keep only their links,
+ * so memory does not grow with the size of the listing; a page answered 304 comes back without
+ * a body and the caller reuses what it built from the listing before. Page ETags are remembered
+ * only when the caller hands the pages back through {@link #rememberPages}, once what it built
+ * from them is stored, so an ETag never stands for content that was read and then lost.
+ */
+@Component
+@Slf4j
+public class GitHubApiClient {
+
+    private static final Pattern LINK = Pattern.compile("<([^>]*)>\\s*;\\s*rel=\"([^\"]+)\"");
+    private static final Pattern PAGE_PARAMETER = Pattern.compile("[?&]page=(\\d+)");
+
+    private final WebClient gitHubWebClient;
+    private final GitHubRateLimitScheduler gitHubRateLimitScheduler;
+    private final IntegrationConfig.GitHub config;
+    private final UriBuilderFactory uriBuilderFactory;
+
+    private final Map<URI, CachedResponse> responsesByUri;
+
+    private final Counter modified;
+    private final Counter notModified;
+
+    public GitHubApiClient(WebClient gitHubWebClient, GitHubRateLimitScheduler gitHubRateLimitScheduler,
+                           IntegrationConfig integrationConfig, MeterRegistry meterRegistry) {
+        this.gitHubWebClient = gitHubWebClient;
+        this.gitHubRateLimitScheduler = gitHubRateLimitScheduler;
+        this.config = integrationConfig.getGithub();
+        this.uriBuilderFactory = new DefaultUriBuilderFactory(config.getApiUrl());
+
+        int maxEntries = config.getEtagCacheSize();
+        this.responsesByUri = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<URI, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        this.modified = Counter.builder("github.api.responses")
+                .tag("result", "modified")
+                .description("GitHub API responses with a new body")
+                .register(meterRegistry);
+        this.notModified = Counter.builder("github.api.responses")
+                .tag("result", "not_modified")
+                .description("GitHub API responses answered 304 and served from memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Turns a complete response body into a value.
+     */
+    @FunctionalInterface
+    public interface BodyDecoder<T> {
+        T decode(InputStream body) throws IOException;
+    }
+
+    public <T> Mono<T> get(Class<T> type, String uriTemplate, Object... uriVariables) {
+        return get(ParameterizedTypeReference.forType(type), uriTemplate, uriVariables);
+    }
+
+    public <T> Mono<T> get(ParameterizedTypeReference<T> type, String uriTemplate, Object... uriVariables) {
+        return send(uri -> exchange(uri, response -> response.bodyToMono(type), wholeBody(), true), uriTemplate, uriVariables);
+    }
+
+    /**
+     * GETs the expanded URI with {@code If-None-Match: etag} for callers that keep the last
+     * response themselves; nothing is remembered here. Completes with the body and its ETag,
+     * or empty when GitHub answers 304.
+     */
+    public <T> Mono<Tagged<T>> getIfNoneMatch(Class<T> type, String etag, String uriTemplate, Object... uriVariables) {
+        return send(uri -> exchangeTagged(uri, type, etag), uriTemplate, uriVariables);
+    }
+
+    /**
+     * GETs the expanded URI and hands the whole body to {@code decoder} as one stream, for
+     * payloads where databinding would build far more than is kept.
+     */
+    public <T> Mono<T> get(BodyDecoder<T> decoder, String uriTemplate, Object... uriVariables) {
+        return send(uri -> exchange(uri, response -> decode(response, decoder), wholeBody(), true), uriTemplate, uriVariables);
+    }
+
+    /**
+     * Like {@link #get(BodyDecoder, String, Object...)} for one page of a paginated listing,
+     * with the page links GitHub sent in the {@code Link} header. When {@code conditional}, a
+     * page unchanged since it was last remembered comes back with no body and {@code modified}
+     * false.
+     */
+    public <T> Mono<Page<T>> getPage(BodyDecoder<T> decoder, boolean conditional, String uriTemplate, Object... uriVariables) {
+        return send(uri -> exchange(uri, response -> decode(response, decoder)
+                        .map(body -> pageOf(uri, body, response.headers().header(HttpHeaders.LINK),
+                                response.headers().asHttpHeaders().getETag())), pageLinks(), conditional),
+                uriTemplate, uriVariables);
+    }
+    
+    /**
+     * Remembers the ETags and links of pages read with {@link #getPage}, so the next conditional
+     * read of each can be answered 304. Pages that were not modified are already remembered.
+     */
+    public void rememberPages(Collection<? extends Page<?>> pages) {
+        synchronized (responsesByUri) {
+            for (Page<?> page : pages) {
+                if (page.modified() && page.etag() != null) {
+                    responsesByUri.put(page.uri(),
+                            new CachedResponse(page.etag(), new PageLinks(page.hasNext(), page.lastPage())));
+                }
+            }
+        }
+    }
+
+    /**
+     * GETs the expanded URI once the rate limit scheduler lets it go, at the priority in the
+     * subscriber context. Transient failures (connection errors, timeouts, 5xx) are retried
+     * with backoff up to the configured number of attempts; other errors surface as
+     * {@link WebClientResponseException}.
+     */
+    private <T> Mono<T> send(Function<URI, Mono<T>> exchange, String uriTemplate, Object... uriVariables) {
+        URI uri = uriBuilderFactory.expand(uriTemplate, uriVariables);
+
+        // Waiting for budget does not count towards the request timeout
+        return Mono.deferContextual(context -> gitHubRateLimitScheduler.acquire(GitHubRateLimitScheduler.priorityOf(context)))
+                .then(Mono.defer(() -> exchange.apply(uri))
+                        .timeout(Duration.ofMillis(config.getTimeout())))
+                .retryWhen(Retry.backoff(config.getRetryAttempts(), Duration.ofMillis(250))
+                        .filter(GitHubApiClient::isTransient)
+                        .doBeforeRetry(signal -> log.debug("Retrying GitHub request {} after: {}",
+                                uri, signal.failure().getMessage()))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    public void evict(String uriTemplate, Object... uriVariables) {
+        URI uri = uriBuilderFactory.expand(uriTemplate, uriVariables);
+        synchronized (responsesByUri) {
+            responsesByUri.remove(uri);
+        }
+    }
+
+    private <T> Mono<T> exchange(URI uri, Function<ClientResponse, Mono<T>> bodyReader, Memory<T> memory,
+                                 boolean conditional) {
+        CachedResponse cached = conditional ? cached(uri) : null;
+
+        return gitHubWebClient.get()
+                .uri(uri)
+                .headers(headers -> {
+                    if (cached != null) {
+                        headers.setIfNoneMatch(cached.etag());
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && cached != null) {
+                        notModified.increment();
+                        return response.releaseBody().thenReturn(memory.recall(uri, cached));
+                    }
+                    if (!response.statusCode().is2xxSuccessful()) {
+                        return response.createError();
+                    }
+
+                    modified.increment();
+                    String etag = response.headers().asHttpHeaders().getETag();
+                    return bodyReader.apply(response).doOnNext(body -> {
+                        if (etag != null) {
+                            memory.remember(uri, etag, body);
+                        }
+                    });
+                });
+    }
+
+    private <T> Mono<Tagged<T>> exchangeTagged(URI uri, Class<T> type, String etag) {
+        return gitHubWebClient.get()
+                .uri(uri)
+                .headers(headers -> {
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && etag != null) {
+                        notModified.increment();
+                        return response.releaseBody().then(Mono.<Tagged<T>>empty());
+                    }
+                    if (!response.statusCode().is2xxSuccessful()) {
+                        return response.createError();
+                    }
+
+                    modified.increment();
+                    String newEtag = response.headers().asHttpHeaders().getETag();
+                    return response.bodyToMono(type).map(body -> new Tagged<>(body, newEtag));
+                });
+    }
+
+    private CachedResponse cached(URI uri) {
+        synchronized (responsesByUri) {
+            return responsesByUri.get(uri);
+        }
+    }
+
+    private static <T> Mono<T> decode(ClientResponse response, BodyDecoder<T> decoder) {
+        return DataBufferUtils.join(response.bodyToFlux(DataBuffer.class))
+                .map(buffer -> {
+                    try (InputStream body = buffer.asInputStream(true)) {
+                        return decoder.decode(body);
+                    } catch (IOException e) {
+                        throw new DecodingException("Failed to decode GitHub response: " + e.getMessage(), e);
+                    }
+                });
+    }
+
+    // Link: <...&page=2>; rel="next", <...&page=7>; rel="last"
+    private static <T> Page<T> pageOf(URI uri, T body, List<String> linkHeaders, String etag) {
+        boolean hasNext = false;
+        int lastPage = 0;
+        for (String header : linkHeaders) {
+            Matcher link = LINK.matcher(header);
+            while (link.find()) {
+                if ("next".equals(link.group(2))) {
+                    hasNext = true;
+                } else if ("last".equals(link.group(2))) {
+                    Matcher page = PAGE_PARAMETER.matcher(link.group(1));
+                    if (page.find()) {
+                        lastPage = Integer.parseInt(page.group(1));
+                    }
+                }
+            }
+        }
+        return new Page<>(body, hasNext, lastPage, true, uri, etag);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Memory<T> wholeBody() {
+        return new Memory<>() {
+            @Override
+            public void remember(URI uri, String etag, T value) {
+                synchronized (responsesByUri) {
+                    responsesByUri.put(uri, new CachedResponse(etag, value));
+                }
+            }
+
+            @Override
+            public T recall(URI uri, CachedResponse cached) {
+                return (T) cached.remembered();
+            }
+        };
+    }
+
+    // Nothing is kept on arrival, the caller hands pages back through rememberPages
+    private static <T> Memory<Page<T>> pageLinks() {
+        return new Memory<>() {
+            @Override
+            public void remember(URI uri, String etag, Page<T> page) {
+            }
+
+            @Override
+            public Page<T> recall(URI uri, CachedResponse cached) {
+                PageLinks links = (PageLinks) cached.remembered();
+                return new Page<>(null, links.hasNext(), links.lastPage(), false, uri, cached.etag());
+            }
+        };
+    }
+
+    private static boolean isTransient(Throwable error) {
+        if (error instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is5xxServerError();
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException;
+    }
+
+    /**
+     * One page of a listing. {@code lastPage} is 0 when GitHub did not say how many pages
+     * there are. {@code body} is null when the page was not {@code modified}. {@code uri} and
+     * {@code etag} identify the response for {@link #rememberPages}.
+     */
+    public record Page<T>(T body, boolean hasNext, int lastPage, boolean modified, URI uri, String etag) {
+    }
+
+    /**
+     * A response body with the ETag GitHub sent for it, null if none.
+     */
+    public record Tagged<T>(T body, String etag) {
+    }
+
+    // What is kept of a response for the next conditional request, and what a 304 turns back into
+    private interface Memory<T> {
+        void remember(URI uri, String etag, T value);
+
+        T recall(URI uri, CachedResponse cached);
+    }
+
+    private record PageLinks(boolean hasNext, int lastPage) {
+    }
+
+    // Remembered bodies are shared between callers and must not be modified
+    private record CachedResponse(String etag, Object remembered) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * The fields of a GitHub repository object that profiles use. Repository lists are read by
+ * {@link GitHubRepositoryDecoder}; the annotations cover single repositories decoded by Jackson.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GitHubApiRepository(
+        String name,
+        @JsonProperty("full_name") String fullName,
+        String description,
+        @JsonProperty("html_url") String htmlUrl,
+        String language,
+        @JsonProperty("stargazers_count") Integer stargazersCount,
+        @JsonProperty("forks_count") Integer forksCount,
+        boolean fork,
+        List<String> topics,
+        @JsonProperty("created_at") OffsetDateTime createdAt,
+        @JsonProperty("updated_at") OffsetDateTime updatedAt,
+        @JsonProperty("pushed_at") OffsetDateTime pushedAt) {
+}
@@ -0,0 +1,27 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.OffsetDateTime;
+
+/**
+ * The fields of GitHub's {@code /users/{username}} response that profiles use.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GitHubApiUser(
+        String login,
+        String name,
+        String email,
+        String bio,
+        String blog,
+        String location,
+        @JsonProperty("avatar_url") String avatarUrl,
+        @JsonProperty("html_url") String htmlUrl,
+        @JsonProperty("public_repos") Integer publicRepos,
+        @JsonProperty("public_gists") Integer publicGists,
+        Integer followers,
+        Integer following,
+        @JsonProperty("created_at") OffsetDateTime createdAt,
+        @JsonProperty("updated_at") OffsetDateTime updatedAt) {
+}
@@ -1,65 +1,174 @@
 package com.yourcompany.portfoliogenerator.service;
 
+import com.yourcompany.portfoliogenerator.config.IntegrationConfig;
+import com.yourcompany.portfoliogenerator.model.GitHubSnapshot;
 import com.yourcompany.portfoliogenerator.model.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GitHubIntegrationService {
     
-    private final WebClient.Builder webClientBuilder;
+    private static final String USER = "/users/{username}";
+    private static final String REPOSITORY_PAGE = "/users/{username}/repos?sort=full_name&per_page=100&page={page}";
+    private static final int TOP_LANGUAGES = 10;
+    
+    private final GitHubApiClient gitHubApiClient;
+    private final GitHubRepositoryDecoder gitHubRepositoryDecoder;
+    private final GitHubSnapshotStore gitHubSnapshotStore;
     private final UserProfileService userProfileService;
+    private final IntegrationConfig integrationConfig;
     
-    @Value("${github.api.base-url:https://api.github.com}")
-    private String githubApiBaseUrl;
+    /**
+     * The profile from the snapshot store, fetched from GitHub only when missing or stale.
+     */
+    public Mono<GitHubProfile> getGitHubProfile(String username) {
+        return gitHubSnapshotStore.get(username, previous -> fetchSnapshot(username, previous));
+    }
     
-    public Mono<GitHubProfile> fetchGitHubProfile(String username) {
-        WebClient webClient = webClientBuilder
-                .baseUrl(githubApiBaseUrl)
-                .build();
+    /**
+     * Fetches the profile. With a {@code previous} snapshot every request is conditional: the
+     * user document against the snapshot's ETag, the repository pages against theirs, and
+     * whatever GitHub reports unchanged is taken from the previous profile. The pages read are
+     * remembered for the next refresh once the snapshot is saved.
+     */
+    private Mono<GitHubSnapshotStore.Fetched> fetchSnapshot(String username, GitHubSnapshot previous) {
+        GitHubProfile last = previous != null ? previous.getProfile() : null;
+        String etag = previous != null ? previous.getEtag() : null;
         
-        return webClient.get()
-                .uri("/users/{username}", username)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .flatMap(userMap -> {
-                    GitHubProfile profile = mapToGitHubProfile(userMap);
-                    return fetchUserRepositories(username)
-                            .map(repos -> {
-                                profile.setRepositories(repos);
-                                return profile;
-                            });
-                })
-                .timeout(Duration.ofSeconds(30))
+        return gitHubApiClient.getIfNoneMatch(GitHubApiUser.class, etag, USER, username)
+                .map(user -> GitHubSnapshot.builder()
+                        .profile(mapToGitHubProfile(user.body()))
+                        .etag(user.etag())
+                        .build())
+                .switchIfEmpty(Mono.fromSupplier(() -> GitHubSnapshot.builder()
+                        .profile(copyUserFields(last))
+                        .etag(etag)
+                        .build()))
+                .flatMap(snapshot -> withRepositories(username, snapshot.getProfile(), last)
+                        .map(pages -> new GitHubSnapshotStore.Fetched(snapshot, () -> gitHubApiClient.rememberPages(pages))))
                 .doOnError(error -> log.error("Error fetching GitHub profile for user {}: {}", username, error.getMessage()));
     }
     
-    public Mono<List<GitHubProfile.Repository>> fetchUserRepositories(String username) {
-        WebClient webClient = webClientBuilder
-                .baseUrl(githubApiBaseUrl)
-                .build();
+    // Completes with the pages the summary was built from, none when the previous one is kept
+    private Mono<List<GitHubApiClient.Page<List<GitHubApiRepository>>>> withRepositories(String username,
+                                                                                        GitHubProfile profile,
+                                                                                        GitHubProfile previous) {
+        return summarizeRepositories(username, previous != null)
+                .map(listing -> {
+                    GitHubRepositorySummary summary = listing.summary;
+                    profile.setRepositories(summary.topRepositories().stream()
+                            .map(this::mapToRepository)
+                            .toList());
+                    profile.setLanguages(summary.topLanguages(TOP_LANGUAGES));
+                    profile.setTotalStars(summary.totalStars());
+                    profile.setTotalForks(summary.totalForks());
+                    return listing.pages;
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.debug("GitHub repositories of {} unchanged, keeping the previous summary", username);
+                    profile.setRepositories(previous.getRepositories());
+                    profile.setLanguages(previous.getLanguages());
+                    profile.setTotalStars(previous.getTotalStars());
+                    profile.setTotalForks(previous.getTotalForks());
+                    return List.of();
+                }));
+    }
+    
+    /**
+     * Reads every repository page and folds it into a summary as it arrives. Once the first
+     * page says how many there are, the rest are fetched a few at a time. When
+     * {@code conditional}, completes empty if no page changed since it was last read.
+     */
+    private Mono<RepositoryListing> summarizeRepositories(String username, boolean conditional) {
+        return readRepositories(username, conditional)
+                .flatMap(listing -> {
+                    if (listing.unchanged == 0) {
+                        return Mono.just(listing);
+                    }
+                    if (listing.changed == 0) {
+                        return Mono.empty();
+                    }
+                    // Unchanged pages came back without a body, read the listing again in full
+                    return readRepositories(username, false);
+                })
+                .doOnNext(listing -> log.debug("Summarized {} GitHub repositories for {}",
+                        listing.summary.repositories(), username));
+    }
+    
+    private Mono<RepositoryListing> readRepositories(String username, boolean conditional) {
+        IntegrationConfig.GitHub github = integrationConfig.getGithub();
         
-        return webClient.get()
-                .uri("/users/{username}/repos?sort=updated&per_page=50", username)
-                .retrieve()
-                .bodyToFlux(Map.class)
-                .map(this::mapToRepository)
-                .collectList()
-                .timeout(Duration.ofSeconds(30));
+        return fetchRepositoryPage(username, 1, conditional)
+                .flatMapMany(first -> Flux.concat(Mono.just(first), remainingPages(username, first, conditional, github)))
+                .collect(() -> new RepositoryListing(new GitHubRepositorySummary(github.getTopRepositories())),
+                        RepositoryListing::add);
+    }
+    
+    private Flux<GitHubApiClient.Page<List<GitHubApiRepository>>> remainingPages(String username,
+                                                                                GitHubApiClient.Page<List<GitHubApiRepository>> first,
+                                                                                boolean conditional,
+                                                                                IntegrationConfig.GitHub github) {
+        if (!first.hasNext()) {
+            return Flux.empty();
+        }
+        
+        int maxPages = github.getMaxRepositoryPages();
+        if (first.lastPage() > maxPages) {
+            log.warn("GitHub user {} has {} repository pages, reading the first {}", username, first.lastPage(), maxPages);
+        }
+        
+        if (first.lastPage() > 1) {
+            return Flux.range(2, Math.max(Math.min(first.lastPage(), maxPages) - 1, 0))
+                    .flatMap(page -> fetchRepositoryPage(username, page, conditional), github.getPageConcurrency());
+        }
+        
+        // Without a last link the page count is unknown, so follow next links one at a time
+        return Flux.range(2, Math.max(maxPages - 1, 0))
+                .concatMap(page -> fetchRepositoryPage(username, page, conditional))
+                .takeUntil(page -> !page.hasNext());
+    }
+    
+    private Mono<GitHubApiClient.Page<List<GitHubApiRepository>>> fetchRepositoryPage(String username, int page,
+                                                                                    boolean conditional) {
+        return gitHubApiClient.getPage(gitHubRepositoryDecoder::decode, conditional, REPOSITORY_PAGE, username, page);
+    }
+    
+    // The summary of the pages read, the pages that changed, and how many did not
+    private static final class RepositoryListing {
+        private final GitHubRepositorySummary summary;
+        private final List<GitHubApiClient.Page<List<GitHubApiRepository>>> pages = new ArrayList<>();
+        private int changed;
+        private int unchanged;
+        
+        private RepositoryListing(GitHubRepositorySummary summary) {
+            this.summary = summary;
+        }
+        
+        private void add(GitHubApiClient.Page<List<GitHubApiRepository>> page) {
+            if (page.modified()) {
+                summary.addAll(page.body());
+                pages.add(page);
+                changed++;
+            } else {
+                unchanged++;
+            }
+        }
     }
     
     public Mono<UserProfileResponse> syncGitHubData(User user, String username) {
-        return fetchGitHubProfile(username)
+        return getGitHubProfile(username)
                 .map(githubProfile -> {
                     UserProfileRequest profileUpdate = createProfileUpdateFromGitHub(githubProfile);
                     UserProfileResponse updatedProfile = userProfileService.createOrUpdateProfile(user, profileUpdate);
@@ -73,41 +182,66 @@ public class GitHubIntegrationService {
                 });
     }
     
-    private GitHubProfile mapToGitHubProfile(Map<String, Object> userMap) {
+    private GitHubProfile mapToGitHubProfile(GitHubApiUser user) {
         GitHubProfile profile = new GitHubProfile();
-        profile.setLogin((String) userMap.get("login"));
-        profile.setName((String) userMap.get("name"));
-        profile.setEmail((String) userMap.get("email"));
-        profile.setBio((String) userMap.get("bio"));
-        profile.setBlog((String) userMap.get("blog"));
-        profile.setLocation((String) userMap.get("location"));
-        profile.setAvatarUrl((String) userMap.get("avatar_url"));
-        profile.setHtmlUrl((String) userMap.get("html_url"));
-        profile.setPublicRepos((Integer) userMap.get("public_repos"));
-        profile.setPublicGists((Integer) userMap.get("public_gists"));
-        profile.setFollowers((Integer) userMap.get("followers"));
-        profile.setFollowing((Integer) userMap.get("following"));
+        profile.setLogin(user.login());
+        profile.setName(user.name());
+        profile.setEmail(user.email());
+        profile.setBio(user.bio());
+        profile.setBlog(user.blog());
+        profile.setLocation(user.location());
+        profile.setAvatarUrl(user.avatarUrl());
+        profile.setHtmlUrl(user.htmlUrl());
+        profile.setPublicRepos(user.publicRepos());
+        profile.setPublicGists(user.publicGists());
+        profile.setFollowers(user.followers());
+        profile.setFollowing(user.following());
+        profile.setCreatedAt(toLocalDateTime(user.createdAt()));
+        profile.setUpdatedAt(toLocalDateTime(user.updatedAt()));
         return profile;
     }
     
-    private GitHubProfile.Repository mapToRepository(Map<String, Object> repoMap) {
+    // Previous profiles are shared, so an unchanged user document is copied rather than reused
+    private static GitHubProfile copyUserFields(GitHubProfile source) {
+        GitHubProfile profile = new GitHubProfile();
+        profile.setLogin(source.getLogin());
+        profile.setName(source.getName());
+        profile.setEmail(source.getEmail());
+        profile.setBio(source.getBio());
+        profile.setBlog(source.getBlog());
+        profile.setLocation(source.getLocation());
+        profile.setAvatarUrl(source.getAvatarUrl());
+        profile.setHtmlUrl(source.getHtmlUrl());
+        profile.setPublicRepos(source.getPublicRepos());
+        profile.setPublicGists(source.getPublicGists());
+        profile.setFollowers(source.getFollowers());
+        profile.setFollowing(source.getFollowing());
+        profile.setCreatedAt(source.getCreatedAt());
+        profile.setUpdatedAt(source.getUpdatedAt());
+        return profile;
+    }
+    
+    private GitHubProfile.Repository mapToRepository(GitHubApiRepository source) {
         GitHubProfile.Repository repo = new GitHubProfile.Repository();
-        repo.setName((String) repoMap.get("name"));
-        repo.setFullName((String) repoMap.get("full_name"));
-        repo.setDescription((String) repoMap.get("description"));
-        repo.setHtmlUrl((String) repoMap.get("html_url"));
-        repo.setLanguage((String) repoMap.get("language"));
-        repo.setStargazersCount((Integer) repoMap.get("stargazers_count"));
-        repo.setForksCount((Integer) repoMap.get("forks_count"));
-        repo.setFork((Boolean) repoMap.get("fork"));
-        
-        @SuppressWarnings("unchecked")
-        List<String> topics = (List<String>) repoMap.get("topics");
-        repo.setTopics(topics);
-        
+        repo.setName(source.name());
+        repo.setFullName(source.fullName());
+        repo.setDescription(source.description());
+        repo.setHtmlUrl(source.htmlUrl());
+        repo.setLanguage(source.language());
+        repo.setStargazersCount(source.stargazersCount());
+        repo.setForksCount(source.forksCount());
+        repo.setFork(source.fork());
+        repo.setTopics(source.topics());
+        repo.setCreatedAt(toLocalDateTime(source.createdAt()));
+        repo.setUpdatedAt(toLocalDateTime(source.updatedAt()));
+        repo.setPushedAt(toLocalDateTime(source.pushedAt()));
         return repo;
     }
     
+    private static LocalDateTime toLocalDateTime(OffsetDateTime value) {
+        return value != null ? value.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime() : null;
+    }
+    
     private UserProfileRequest createProfileUpdateFromGitHub(GitHubProfile githubProfile) {
         UserProfileRequest request = new UserProfileRequest();
         
@@ -135,17 +269,9 @@ public class GitHubIntegrationService {
             request.setGithubUrl(githubProfile.getHtmlUrl());
         }
         
-        // Extract skills from popular repository languages
-        if (githubProfile.getRepositories() != null) {
-            List<String> languages = githubProfile.getRepositories().stream()
-                    .map(GitHubProfile.Repository::getLanguage)
-                    .filter(lang -> lang != null && !lang.isEmpty())
-                    .distinct()
-                    .toList();
-            
-            if (!languages.isEmpty()) {
-                request.setSkills(String.join(", ", languages));
-            }
+        // Extract skills from the most used repository languages
+        if (githubProfile.getLanguages() != null && !githubProfile.getLanguages().isEmpty()) {
+            request.setSkills(String.join(", ", githubProfile.getLanguages()));
         }
         
         return request;
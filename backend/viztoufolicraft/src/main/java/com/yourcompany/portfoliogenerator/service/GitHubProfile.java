@@ -21,8 +21,11 @@ public class GitHubProfile {
     private Integer following;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Own repositories with the most stars; totals cover every own repository
     private List<Repository> repositories;
     private List<String> languages;
+    private Integer totalStars;
+    private Integer totalForks;
     
     @Data
     public static class Repository {
@@ -0,0 +1,248 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.yourcompany.portfoliogenerator.config.IntegrationConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out GitHub API calls against the rate limit budget. Every call takes a token before it
+ * is sent; the bucket is reset from the {@code X-RateLimit-*} headers of each response, so it
+ * follows what GitHub actually counted. Waiting calls are served interactive first. Background
+ * calls stop once the budget is down to the reserve (at most half the window), leaving the
+ * rest for users waiting on a sync. When nothing may go, the queue sleeps until the window
+ * resets; callers of either priority give up after a bounded wait.
+ */
+@Component
+@Slf4j
+public class GitHubRateLimitScheduler {
+
+    public enum Priority {
+        // A user is waiting on the result
+        INTERACTIVE,
+        // Refreshes nobody is waiting for
+        BACKGROUND
+    }
+
+    private static final int UNAUTHENTICATED_LIMIT = 60;
+    private static final int AUTHENTICATED_LIMIT = 5000;
+
+    private final int reserve;
+    private final Duration maxWait;
+    private final Duration backgroundMaxWait;
+
+    private final PriorityQueue<Waiter> waiting = new PriorityQueue<>(
+            Comparator.comparing(Waiter::priority).thenComparingLong(Waiter::sequence));
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Guarded by waiting
+    private int limit;
+    private int budget;
+    private long resetEpochSecond;
+    private int inFlight;
+    private Disposable wakeUp;
+
+    public GitHubRateLimitScheduler(IntegrationConfig integrationConfig, MeterRegistry meterRegistry) {
+        IntegrationConfig.GitHub github = integrationConfig.getGithub();
+        this.reserve = github.getRateLimitReserve();
+        this.maxWait = Duration.ofMillis(github.getRateLimitMaxWait());
+        this.backgroundMaxWait = Duration.ofMillis(github.getRateLimitBackgroundMaxWait());
+
+        // Assumed until the first response says otherwise
+        this.limit = StringUtils.hasText(github.getToken()) ? AUTHENTICATED_LIMIT : UNAUTHENTICATED_LIMIT;
+        this.budget = limit;
+        this.resetEpochSecond = Instant.now().plus(Duration.ofHours(1)).getEpochSecond();
+
+        Gauge.builder("github.ratelimit.remaining", this, GitHubRateLimitScheduler::remaining)
+                .description("GitHub API calls left in the current rate limit window")
+                .register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            Gauge.builder("github.ratelimit.queue.depth", this, scheduler -> scheduler.queued(priority))
+                    .tag("priority", priority.name())
+                    .description("GitHub API calls waiting for rate limit budget")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Runs the wrapped GitHub calls at the given priority. Calls without one are interactive.
+     */
+    public static Context withPriority(Priority priority) {
+        return Context.of(Priority.class, priority);
+    }
+
+    public static Priority priorityOf(ContextView context) {
+        return context.getOrDefault(Priority.class, Priority.INTERACTIVE);
+    }
+
+    /**
+     * Completes once a call may be sent. Gives up with an {@link IllegalStateException} after
+     * the configured wait for the priority, so nobody waits on a window that never comes.
+     */
+    public Mono<Void> acquire(Priority priority) {
+        Mono<Void> permit = Mono.create(sink -> {
+            Waiter waiter = new Waiter(priority, sequence.getAndIncrement(), sink, new AtomicBoolean());
+            sink.onCancel(() -> {
+                synchronized (waiting) {
+                    // Cancelled between being granted and receiving the signal, take the token back
+                    if (!waiting.remove(waiter) && waiter.granted().get()) {
+                        budget++;
+                    }
+                }
+            });
+            synchronized (waiting) {
+                waiting.add(waiter);
+            }
+            drain();
+        });
+
+        Duration wait = priority == Priority.BACKGROUND ? backgroundMaxWait : maxWait;
+        return permit.timeout(wait, Mono.error(() -> new IllegalStateException(
+                "GitHub rate limit exhausted until " + Instant.ofEpochSecond(resetEpochSecond()))));
+    }
+
+    /**
+     * Reads the rate limit headers of every response and returns the call's token when GitHub
+     * did not count it.
+     */
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> Mono.defer(() -> {
+                    synchronized (waiting) {
+                        inFlight++;
+                    }
+                    return next.exchange(request);
+                })
+                .doOnNext(this::observe)
+                .doFinally(signal -> {
+                    synchronized (waiting) {
+                        inFlight--;
+                    }
+                    drain();
+                });
+    }
+
+    private void observe(ClientResponse response) {
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        Long remaining = longHeader(headers, "X-RateLimit-Remaining");
+        Long windowLimit = longHeader(headers, "X-RateLimit-Limit");
+        Long reset = longHeader(headers, "X-RateLimit-Reset");
+
+        synchronized (waiting) {
+            // Conditional requests answered 304 are free
+            if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                budget++;
+            }
+            if (windowLimit != null) {
+                limit = windowLimit.intValue();
+            }
+            if (remaining == null) {
+                return;
+            }
+            if (reset != null && reset != resetEpochSecond) {
+                // A new window; calls still in flight will be counted against it
+                resetEpochSecond = reset;
+                budget = (int) Math.max(remaining - (inFlight - 1), 0);
+            } else {
+                // Responses can arrive out of order, never hand back tokens already taken
+                budget = (int) Math.min(budget, remaining);
+            }
+        }
+    }
+
+    private void drain() {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (waiting) {
+            if (Instant.now().getEpochSecond() >= resetEpochSecond && budget < limit) {
+                // The window rolled over without a response telling us
+                budget = limit;
+                resetEpochSecond = Instant.now().plus(Duration.ofHours(1)).getEpochSecond();
+            }
+
+            Waiter next;
+            while ((next = waiting.peek()) != null && budget > floorFor(next.priority())) {
+                waiting.poll();
+                next.granted().set(true);
+                budget--;
+                granted.add(next);
+            }
+
+            if (next != null && wakeUp == null) {
+                long delay = Math.max(resetEpochSecond - Instant.now().getEpochSecond(), 0) + 1;
+                if (next.priority() == Priority.INTERACTIVE) {
+                    log.warn("GitHub rate limit budget at {}, holding {} calls for {}s", budget, waiting.size(), delay);
+                } else {
+                    log.debug("GitHub rate limit budget at {}, holding background calls for {}s", budget, delay);
+                }
+                wakeUp = Schedulers.parallel().schedule(() -> {
+                    synchronized (waiting) {
+                        wakeUp = null;
+                    }
+                    drain();
+                }, delay, TimeUnit.SECONDS);
+            }
+        }
+
+        // Outside the lock, the calls start on this thread
+        granted.forEach(waiter -> waiter.sink().success());
+    }
+
+    // The reserve never takes more than half a window, whatever the limit turns out to be
+    private int floorFor(Priority priority) {
+        return priority == Priority.BACKGROUND ? Math.min(reserve, limit / 2) : 0;
+    }
+
+    private int remaining() {
+        synchronized (waiting) {
+            return budget;
+        }
+    }
+
+    private long resetEpochSecond() {
+        synchronized (waiting) {
+            return resetEpochSecond;
+        }
+    }
+
+    private int queued(Priority priority) {
+        synchronized (waiting) {
+            return (int) waiting.stream().filter(waiter -> waiter.priority() == priority).count();
+        }
+    }
+
+    private static Long longHeader(HttpHeaders headers, String name) {
+        String value = headers.getFirst(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record Waiter(Priority priority, long sequence, MonoSink<Void> sink, AtomicBoolean granted) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a GitHub repository list token by token. Each repository object carries around 90
+ * fields, most of them nested objects and URLs; only the ones in {@link GitHubApiRepository}
+ * are read, everything else is skipped without building a value for it.
+ */
+@Component
+public class GitHubRepositoryDecoder {
+
+    private final JsonFactory jsonFactory;
+
+    public GitHubRepositoryDecoder(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public List<GitHubApiRepository> decode(InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected an array of repositories");
+            }
+
+            List<GitHubApiRepository> repositories = new ArrayList<>();
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == null) {
+                    throw new JsonParseException(parser, "Unexpected end of repository list");
+                }
+                if (token == JsonToken.START_OBJECT) {
+                    repositories.add(readRepository(parser));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return List.copyOf(repositories);
+        }
+    }
+
+    private static GitHubApiRepository readRepository(JsonParser parser) throws IOException {
+        String name = null;
+        String fullName = null;
+        String description = null;
+        String htmlUrl = null;
+        String language = null;
+        Integer stargazersCount = null;
+        Integer forksCount = null;
+        boolean fork = false;
+        List<String> topics = List.of();
+        OffsetDateTime createdAt = null;
+        OffsetDateTime updatedAt = null;
+        OffsetDateTime pushedAt = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "name" -> name = parser.getValueAsString();
+                case "full_name" -> fullName = parser.getValueAsString();
+                case "description" -> description = parser.getValueAsString();
+                case "html_url" -> htmlUrl = parser.getValueAsString();
+                case "language" -> language = parser.getValueAsString();
+                case "stargazers_count" -> stargazersCount = intValue(parser, value);
+                case "forks_count" -> forksCount = intValue(parser, value);
+                case "fork" -> fork = value == JsonToken.VALUE_TRUE;
+                case "topics" -> topics = readStrings(parser, value);
+                case "created_at" -> createdAt = dateValue(parser);
+                case "updated_at" -> updatedAt = dateValue(parser);
+                case "pushed_at" -> pushedAt = dateValue(parser);
+                // owner, license, permissions and the rest are never materialised
+                default -> parser.skipChildren();
+            }
+        }
+
+        return new GitHubApiRepository(name, fullName, description, htmlUrl, language, stargazersCount,
+                forksCount, fork, topics, createdAt, updatedAt, pushedAt);
+    }
+
+    private static Integer intValue(JsonParser parser, JsonToken value) throws IOException {
+        return value == JsonToken.VALUE_NUMBER_INT ? parser.getIntValue() : null;
+    }
+
+    private static OffsetDateTime dateValue(JsonParser parser) throws IOException {
+        String text = parser.getValueAsString();
+        return text != null ? OffsetDateTime.parse(text) : null;
+    }
+
+    private static List<String> readStrings(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return List.of();
+        }
+        List<String> strings = new ArrayList<>();
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            if (token == null) {
+                throw new JsonParseException(parser, "Unexpected end of topics");
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                strings.add(parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return List.copyOf(strings);
+    }
+}
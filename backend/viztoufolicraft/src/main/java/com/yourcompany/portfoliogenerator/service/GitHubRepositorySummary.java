@@ -0,0 +1,93 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Running aggregate over a user's repositories, fed one page at a time. Only the top
+ * repositories by stars are kept, in a min-heap; everything else is folded into counters, so
+ * the size does not grow with the number of repositories. Not thread-safe.
+ */
+class GitHubRepositorySummary {
+
+    static final Comparator<GitHubApiRepository> BY_STARS = Comparator
+            .comparingInt((GitHubApiRepository repo) -> orZero(repo.stargazersCount()))
+            .thenComparing(GitHubApiRepository::name, Comparator.nullsFirst(Comparator.reverseOrder()));
+
+    private final int limit;
+    private final PriorityQueue<GitHubApiRepository> top;
+    private final Map<String, Integer> languageCounts = new HashMap<>();
+
+    private int repositories;
+    private int totalStars;
+    private int totalForks;
+
+    GitHubRepositorySummary(int limit) {
+        this.limit = limit;
+        this.top = new PriorityQueue<>(limit + 1, BY_STARS);
+    }
+
+    void addAll(List<GitHubApiRepository> page) {
+        page.forEach(this::add);
+    }
+
+    void add(GitHubApiRepository repo) {
+        repositories++;
+        if (repo.language() != null && !repo.language().isEmpty()) {
+            languageCounts.merge(repo.language(), 1, Integer::sum);
+        }
+
+        // Forks are someone else's work and do not count towards stars or projects
+        if (repo.fork()) {
+            return;
+        }
+        totalStars += orZero(repo.stargazersCount());
+        totalForks += orZero(repo.forksCount());
+
+        top.offer(repo);
+        if (top.size() > limit) {
+            top.poll();
+        }
+    }
+
+    /**
+     * Own repositories with the most stars, most starred first.
+     */
+    List<GitHubApiRepository> topRepositories() {
+        List<GitHubApiRepository> sorted = new ArrayList<>(top);
+        sorted.sort(BY_STARS.reversed());
+        return sorted;
+    }
+
+    /**
+     * Languages by the number of repositories using them, most used first.
+     */
+    List<String> topLanguages(int count) {
+        return languageCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(count)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    int repositories() {
+        return repositories;
+    }
+
+    int totalStars() {
+        return totalStars;
+    }
+
+    int totalForks() {
+        return totalForks;
+    }
+
+    private static int orZero(Integer value) {
+        return value != null ? value : 0;
+    }
+}
@@ -0,0 +1,163 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.yourcompany.portfoliogenerator.config.IntegrationConfig;
+import com.yourcompany.portfoliogenerator.model.GitHubSnapshot;
+import com.yourcompany.portfoliogenerator.repository.GitHubSnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Two-tier cache of GitHub profiles: recent snapshots in memory, all of them in the
+ * github_snapshots collection. A snapshot younger than the TTL is served as is. An older one
+ * is still served straight away while a refresh runs in the background. Only a username with
+ * no snapshot at all waits for GitHub. At most one fetch per username is in flight; every
+ * caller asking meanwhile shares its result. A failed refresh is recorded on the snapshot and
+ * not tried again until the retry delay has passed. What the fetcher read is acknowledged
+ * only once the snapshot built from it is saved.
+ */
+@Component
+@Slf4j
+public class GitHubSnapshotStore {
+
+    private final GitHubSnapshotRepository gitHubSnapshotRepository;
+    private final Duration ttl;
+    private final Duration retryDelay;
+
+    private final Map<String, GitHubSnapshot> snapshots;
+    private final Map<String, CompletableFuture<GitHubSnapshot>> inFlight = new ConcurrentHashMap<>();
+
+    public GitHubSnapshotStore(GitHubSnapshotRepository gitHubSnapshotRepository, IntegrationConfig integrationConfig) {
+        this.gitHubSnapshotRepository = gitHubSnapshotRepository;
+        this.ttl = Duration.ofMillis(integrationConfig.getGithub().getSnapshotTtl());
+        this.retryDelay = Duration.ofMillis(integrationConfig.getGithub().getSnapshotRetryDelay());
+
+        int maxEntries = integrationConfig.getGithub().getSnapshotCacheSize();
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, GitHubSnapshot> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * The profile for {@code username}. {@code fetcher} loads it from GitHub and runs only when
+     * the snapshot is missing or stale; it is given the stale snapshot, or null when there is
+     * none. Returned profiles are shared and must not be modified.
+     */
+    public Mono<GitHubProfile> get(String username, Function<GitHubSnapshot, Mono<Fetched>> fetcher) {
+        String key = username.toLowerCase(Locale.ROOT);
+
+        return Mono.fromCallable(() -> cachedOrStored(key))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(snapshot -> {
+                    if (isStale(snapshot) && !recentlyFailed(snapshot)) {
+                        refresh(key, snapshot, fetcher, GitHubRateLimitScheduler.Priority.BACKGROUND);
+                    }
+                    return Mono.just(snapshot.getProfile());
+                })
+                .switchIfEmpty(Mono.defer(() -> Mono.fromFuture(refresh(key, null, fetcher, GitHubRateLimitScheduler.Priority.INTERACTIVE), true)
+                        .map(GitHubSnapshot::getProfile)));
+    }
+
+    private GitHubSnapshot cachedOrStored(String key) {
+        synchronized (snapshots) {
+            GitHubSnapshot cached = snapshots.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        GitHubSnapshot stored = gitHubSnapshotRepository.findById(key).orElse(null);
+        if (stored != null && stored.getProfile() != null) {
+            remember(stored);
+            return stored;
+        }
+        return null;
+    }
+
+    private CompletableFuture<GitHubSnapshot> refresh(String key, GitHubSnapshot previous,
+                                                      Function<GitHubSnapshot, Mono<Fetched>> fetcher,
+                                                      GitHubRateLimitScheduler.Priority priority) {
+        CompletableFuture<GitHubSnapshot> created = new CompletableFuture<>();
+        CompletableFuture<GitHubSnapshot> running = inFlight.putIfAbsent(key, created);
+        if (running != null) {
+            return running;
+        }
+
+        log.debug("Refreshing GitHub snapshot for {} at {} priority", key, priority);
+        fetcher.apply(previous)
+                .contextWrite(GitHubRateLimitScheduler.withPriority(priority))
+                .publishOn(Schedulers.boundedElastic())
+                .map(fetched -> {
+                    GitHubSnapshot snapshot = fetched.snapshot();
+                    snapshot.setId(key);
+                    snapshot.setFetchedAt(LocalDateTime.now());
+                    GitHubSnapshot saved = gitHubSnapshotRepository.save(snapshot);
+                    fetched.onSaved().run();
+                    remember(saved);
+                    return saved;
+                })
+                .subscribe(created::complete, error -> {
+                    log.warn("Failed to refresh GitHub snapshot for {}: {}", key, error.getMessage());
+                    if (previous != null) {
+                        recordFailure(previous);
+                    }
+                    created.completeExceptionally(error);
+                }, () -> created.completeExceptionally(
+                        new IllegalStateException("No GitHub profile returned for " + key)));
+
+        created.whenComplete((snapshot, error) -> inFlight.remove(key, created));
+        return created;
+    }
+
+    // Snapshots are shared, so the failure goes on a copy
+    private void recordFailure(GitHubSnapshot snapshot) {
+        GitHubSnapshot failed = GitHubSnapshot.builder()
+                .id(snapshot.getId())
+                .profile(snapshot.getProfile())
+                .etag(snapshot.getEtag())
+                .fetchedAt(snapshot.getFetchedAt())
+                .refreshFailedAt(LocalDateTime.now())
+                .build();
+        remember(failed);
+        try {
+            gitHubSnapshotRepository.save(failed);
+        } catch (Exception e) {
+            log.warn("Failed to record refresh failure for GitHub snapshot {}: {}", snapshot.getId(), e.getMessage());
+        }
+    }
+
+    private void remember(GitHubSnapshot snapshot) {
+        synchronized (snapshots) {
+            snapshots.put(snapshot.getId(), snapshot);
+        }
+    }
+
+    private boolean isStale(GitHubSnapshot snapshot) {
+        return snapshot.getFetchedAt() == null || snapshot.getFetchedAt().plus(ttl).isBefore(LocalDateTime.now());
+    }
+
+    private boolean recentlyFailed(GitHubSnapshot snapshot) {
+        return snapshot.getRefreshFailedAt() != null
+                && snapshot.getRefreshFailedAt().plus(retryDelay).isAfter(LocalDateTime.now());
+    }
+
+    /**
+     * A snapshot from the fetcher, and what to run once it is saved. Not run when saving fails,
+     * so the next refresh starts from the snapshot that is actually stored.
+     */
+    public record Fetched(GitHubSnapshot snapshot, Runnable onSaved) {
+    }
+}
@@ -0,0 +1,287 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.yourcompany.portfoliogenerator.model.UserStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * In-process ranking of all user stats, ordered by total points, then level, then stats id.
+ * Backed by a treap whose nodes carry subtree sizes, so rank lookups, top-N and the window
+ * around a user cost O(log n) plus the size of the answer. Built from Mongo at startup and
+ * updated by {@link GamificationService} whenever points change. Users with equal points share
+ * a rank, one more than the number of users with more points; level and id only order lists.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardIndex {
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingInt(Entry::totalPoints).reversed()
+            .thenComparing(Comparator.comparingInt(Entry::level).reversed())
+            .thenComparing(Entry::statsId);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private Node root;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            Query query = new Query();
+            // Only what the ordering needs, so user references are not resolved
+            query.fields().include("totalPoints").include("level");
+
+            int loaded = 0;
+            for (UserStats stats : mongoTemplate.find(query, UserStats.class)) {
+                Entry entry = toEntry(stats);
+                synchronized (this) {
+                    // An update recorded while loading is newer than what was read
+                    if (!entries.containsKey(entry.statsId())) {
+                        insert(entry);
+                        loaded++;
+                    }
+                }
+            }
+            log.info("Leaderboard index warmed with {} users", loaded);
+        } catch (Exception e) {
+            log.error("Failed to warm leaderboard index: {}", e.getMessage(), e);
+        }
+    }
+
+    public synchronized void update(UserStats stats) {
+        if (stats.getId() == null) {
+            return;
+        }
+        Entry entry = toEntry(stats);
+        Entry previous = entries.get(entry.statsId());
+        if (entry.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            remove(previous);
+        }
+        insert(entry);
+    }
+
+    /**
+     * 1-based rank of a user, or null if the stats id is not indexed.
+     */
+    public synchronized Integer rankOf(String statsId) {
+        Entry entry = entries.get(statsId);
+        if (entry == null) {
+            return null;
+        }
+
+        // Points lead the ordering, so users with more points are exactly those before the first tie
+        int above = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.entry.totalPoints() > entry.totalPoints()) {
+                above += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return above + 1;
+    }
+
+    // 1-based position of an indexed entry in list order
+    private int positionOf(Entry entry) {
+        int position = 1;
+        Node node = root;
+        while (node != null) {
+            int cmp = ORDER.compare(entry, node.entry);
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                position += size(node.left);
+                if (cmp == 0) {
+                    break;
+                }
+                position++;
+                node = node.right;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Stats ids of the best {@code limit} users, best first.
+     */
+    public synchronized List<String> top(int limit) {
+        return range(0, limit);
+    }
+
+    /**
+     * Stats ids of the users ranked within {@code radius} places of the given one, best first.
+     * Empty if the stats id is not indexed.
+     */
+    public synchronized List<String> around(String statsId, int radius) {
+        Entry entry = entries.get(statsId);
+        if (entry == null) {
+            return List.of();
+        }
+        int position = positionOf(entry);
+        int from = Math.max(0, position - 1 - radius);
+        return range(from, position - from + radius);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Visits every indexed user in rank order with its 1-based rank. Runs under the index
+     * lock, so the consumer should only collect.
+     */
+    public synchronized void forEachRanked(ObjIntConsumer<String> consumer) {
+        int[] position = {0};
+        int[] rank = {0};
+        Entry[] previous = {null};
+        inOrder(root, entry -> {
+            position[0]++;
+            if (previous[0] == null || previous[0].totalPoints() != entry.totalPoints()) {
+                rank[0] = position[0];
+            }
+            previous[0] = entry;
+            consumer.accept(entry.statsId(), rank[0]);
+        });
+    }
+
+    private List<String> range(int from, int count) {
+        List<String> ids = new ArrayList<>(Math.max(0, Math.min(count, entries.size() - from)));
+        collect(root, from, from + count, 0, ids);
+        return ids;
+    }
+
+    // Appends ids at positions [from, to) of the subtree whose first position is offset
+    private void collect(Node node, int from, int to, int offset, List<String> ids) {
+        if (node == null || offset >= to || offset + node.size <= from) {
+            return;
+        }
+        int position = offset + size(node.left);
+        collect(node.left, from, to, offset, ids);
+        if (position >= from && position < to) {
+            ids.add(node.entry.statsId());
+        }
+        collect(node.right, from, to, position + 1, ids);
+    }
+
+    private void inOrder(Node node, Consumer<Entry> visitor) {
+        if (node == null) {
+            return;
+        }
+        inOrder(node.left, visitor);
+        visitor.accept(node.entry);
+        inOrder(node.right, visitor);
+    }
+
+    private void insert(Entry entry) {
+        Node[] parts = split(root, entry);
+        root = merge(merge(parts[0], new Node(entry)), parts[1]);
+        entries.put(entry.statsId(), entry);
+    }
+
+    private void remove(Entry entry) {
+        root = delete(root, entry);
+        entries.remove(entry.statsId());
+    }
+
+    // Splits into nodes ordered before the key and the rest
+    private static Node[] split(Node node, Entry key) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (ORDER.compare(node.entry, key) < 0) {
+            Node[] parts = split(node.right, key);
+            node.right = parts[0];
+            node.recount();
+            return new Node[]{node, parts[1]};
+        }
+        Node[] parts = split(node.left, key);
+        node.left = parts[1];
+        node.recount();
+        return new Node[]{parts[0], node};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.recount();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.recount();
+        return right;
+    }
+
+    private static Node delete(Node node, Entry key) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = ORDER.compare(key, node.entry);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = delete(node.left, key);
+        } else {
+            node.right = delete(node.right, key);
+        }
+        node.recount();
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static Entry toEntry(UserStats stats) {
+        return new Entry(
+                stats.getId(),
+                stats.getTotalPoints() != null ? stats.getTotalPoints() : 0,
+                stats.getLevel() != null ? stats.getLevel() : 1);
+    }
+
+    private record Entry(String statsId, int totalPoints, int level) {
+    }
+
+    private static final class Node {
+        private final Entry entry;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(Entry entry) {
+            this.entry = entry;
+        }
+
+        private void recount() {
+            size = 1 + size(left) + size(right);
+        }
+    }
+}
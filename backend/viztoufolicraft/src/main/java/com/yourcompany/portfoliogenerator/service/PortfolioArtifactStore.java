@@ -0,0 +1,270 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Versioned on-disk store for built portfolio pages. Every encoding variant is produced
+ * once at build time, so serving a deployed site is a plain file transfer.
+ * <p>
+ * Layout: {@code <storage>/<deploymentId>/<version>/index.html[.gz]}, where the version is
+ * derived from the content hash. The last pre-customization render is kept next to the
+ * versions as {@code base-<fingerprint>.html} so customization-only changes can skip the
+ * template render.
+ */
+@Service
+@Slf4j
+public class PortfolioArtifactStore {
+
+    private static final String INDEX_FILE = "index.html";
+    private static final String BASE_RENDER_PREFIX = "base-";
+    private static final String BASE_RENDER_SUFFIX = ".html";
+    private static final int RETAINED_VERSIONS = 2;
+
+    @Value("${app.deployment.storage.path:./deployments}")
+    private String storagePath;
+
+    public enum Encoding {
+        // Ordered by preference when the client accepts several
+        GZIP("gzip", ".gz"),
+        IDENTITY("identity", "");
+
+        private final String token;
+        private final String suffix;
+
+        Encoding(String token, String suffix) {
+            this.token = token;
+            this.suffix = suffix;
+        }
+
+        public String getToken() {
+            return token;
+        }
+    }
+
+    public String store(String deploymentId, String html) throws IOException {
+        byte[] body = html.getBytes(StandardCharsets.UTF_8);
+        String version = contentVersion(body);
+
+        Path deploymentDir = deploymentDir(deploymentId);
+        Path versionDir = deploymentDir.resolve(version);
+        if (Files.exists(versionDir.resolve(INDEX_FILE))) {
+            log.debug("Artifact {} already stored for deployment {}", version, deploymentId);
+            return version;
+        }
+
+        // Write into a scratch directory and move it into place so readers never see partial files
+        Files.createDirectories(deploymentDir);
+        Path stagingDir = deploymentDir.resolve(".staging-" + UUID.randomUUID());
+        Files.createDirectories(stagingDir);
+        try {
+            Files.write(stagingDir.resolve(INDEX_FILE), body);
+            try (OutputStream out = new GZIPOutputStream(
+                    Files.newOutputStream(stagingDir.resolve(INDEX_FILE + Encoding.GZIP.suffix)))) {
+                out.write(body);
+            }
+            Files.move(stagingDir, versionDir, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+            // Same content stored concurrently
+            deleteRecursively(stagingDir);
+        } catch (IOException e) {
+            deleteRecursively(stagingDir);
+            throw e;
+        }
+
+        pruneOldVersions(deploymentDir, version);
+        log.info("Stored portfolio artifact {} for deployment {} ({} bytes)", version, deploymentId, body.length);
+        return version;
+    }
+
+    public Optional<Artifact> resolve(String deploymentId, String version, String acceptEncoding) {
+        if (deploymentId == null || version == null) {
+            return Optional.empty();
+        }
+
+        Path versionDir = deploymentDir(deploymentId).resolve(version);
+        for (Encoding encoding : Encoding.values()) {
+            if (!accepts(acceptEncoding, encoding)) {
+                continue;
+            }
+            Path file = versionDir.resolve(INDEX_FILE + encoding.suffix);
+            try {
+                return Optional.of(new Artifact(file, encoding, version, Files.size(file)));
+            } catch (NoSuchFileException e) {
+                // Variant missing, try the next one
+            } catch (IOException e) {
+                log.warn("Could not read artifact {} for deployment {}: {}", file, deploymentId, e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean exists(String deploymentId, String version) {
+        return deploymentId != null && version != null
+                && Files.exists(deploymentDir(deploymentId).resolve(version).resolve(INDEX_FILE));
+    }
+
+    public void storeBaseRender(String deploymentId, String fingerprint, String html) throws IOException {
+        Path deploymentDir = deploymentDir(deploymentId);
+        Files.createDirectories(deploymentDir);
+
+        Path target = deploymentDir.resolve(BASE_RENDER_PREFIX + fingerprint + BASE_RENDER_SUFFIX);
+        Path staging = deploymentDir.resolve(".staging-" + UUID.randomUUID());
+        try {
+            Files.writeString(staging, html, StandardCharsets.UTF_8);
+            Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+
+        // Only the latest base render is ever reused
+        try (Stream<Path> files = Files.list(deploymentDir)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(BASE_RENDER_PREFIX) && !file.equals(target)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    public Optional<String> loadBaseRender(String deploymentId, String fingerprint) {
+        if (deploymentId == null || fingerprint == null) {
+            return Optional.empty();
+        }
+
+        Path file = deploymentDir(deploymentId).resolve(BASE_RENDER_PREFIX + fingerprint + BASE_RENDER_SUFFIX);
+        try {
+            return Optional.of(Files.readString(file, StandardCharsets.UTF_8));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("Could not read base render {} for deployment {}: {}", file, deploymentId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void delete(String deploymentId) {
+        try {
+            deleteRecursively(deploymentDir(deploymentId));
+        } catch (IOException e) {
+            log.warn("Could not delete artifacts for deployment {}: {}", deploymentId, e.getMessage());
+        }
+    }
+
+    private boolean accepts(String acceptEncoding, Encoding encoding) {
+        if (encoding == Encoding.IDENTITY) {
+            return true;
+        }
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            if (!coding.equals(encoding.token) && !coding.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void pruneOldVersions(Path deploymentDir, String currentVersion) {
+        try (Stream<Path> versions = Files.list(deploymentDir)) {
+            List<Path> stale = versions
+                    .filter(Files::isDirectory)
+                    .filter(dir -> !dir.getFileName().toString().startsWith(".staging-"))
+                    .filter(dir -> !dir.getFileName().toString().equals(currentVersion))
+                    .sorted(Comparator.comparing(this::lastModified).reversed())
+                    // Keep the previous version around for requests already streaming it
+                    .skip(RETAINED_VERSIONS - 1)
+                    .toList();
+            for (Path dir : stale) {
+                deleteRecursively(dir);
+            }
+        } catch (IOException e) {
+            log.warn("Could not prune old artifacts in {}: {}", deploymentDir, e.getMessage());
+        }
+    }
+
+    private long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private void deleteRecursively(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private Path deploymentDir(String deploymentId) {
+        // Deployment ids are server-generated UUIDs, but never let one escape the storage root
+        Path root = Paths.get(storagePath).toAbsolutePath().normalize();
+        Path dir = root.resolve(deploymentId).normalize();
+        if (!dir.getParent().equals(root)) {
+            throw new IllegalArgumentException("Invalid deployment id: " + deploymentId);
+        }
+        return dir;
+    }
+
+    private String contentVersion(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Artifact {
+        private final Path path;
+        private final Encoding encoding;
+        private final String version;
+        private final long length;
+
+        public String getETag() {
+            return "\"" + version + "-" + encoding.getToken() + "\"";
+        }
+    }
+}
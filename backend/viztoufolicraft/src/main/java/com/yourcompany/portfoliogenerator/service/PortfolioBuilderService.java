@@ -5,13 +5,18 @@ import com.yourcompany.portfoliogenerator.model.PortfolioTemplate;
 import com.yourcompany.portfoliogenerator.model.User;
 import com.yourcompany.portfoliogenerator.model.UserProfile;
 import com.yourcompany.portfoliogenerator.repository.UserProfileRepository;
+import com.yourcompany.portfoliogenerator.template.PlaceholderTemplate;
+import com.yourcompany.portfoliogenerator.template.PlaceholderTemplateCache;
+import com.yourcompany.portfoliogenerator.template.StoredTemplateResolver;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Service
@@ -21,46 +26,129 @@ public class PortfolioBuilderService {
     
     private final UserProfileRepository userProfileRepository;
     private final TemplateEngine templateEngine;
+    private final PlaceholderTemplateCache placeholderTemplateCache;
+    
+    // Bump when the render or splice logic changes so stored fingerprints stop matching
+    private static final String BUILD_FORMAT_VERSION = "1";
     
     public String buildPortfolio(DeployedPortfolio deployment) {
         log.info("Building portfolio for deployment: {}", deployment.getDeploymentId());
         
+        BuildPlan plan = planBuild(deployment);
+        String htmlContent = renderBase(deployment, plan);
+        
+        // Apply customizations
+        htmlContent = applyCustomizations(htmlContent, deployment);
+        
+        log.info("Portfolio built successfully for: {}", deployment.getDeploymentId());
+        return htmlContent;
+    }
+    
+    /**
+     * Loads the build inputs and fingerprints them, split at the customization splice: the base
+     * fingerprint covers the template and every variable the render sees, the customization
+     * fingerprint covers what {@link #applyCustomizations} adds on top.
+     */
+    public BuildPlan planBuild(DeployedPortfolio deployment) {
         User user = deployment.getUser();
         PortfolioTemplate template = deployment.getTemplate();
         
         // Get user profile data
         UserProfile userProfile = userProfileRepository.findByUser(user).orElse(null);
         
-        // Create template context
-        Context context = createTemplateContext(user, userProfile, deployment);
+        // The render sees only these, so nothing it reads can be missing from the fingerprint
+        Map<String, Object> variables = createTemplateVariables(user, userProfile, deployment);
         
-        // Process template
-        String htmlContent = processTemplate(template, context);
+        ContentFingerprint base = ContentFingerprint.create()
+                .add(BUILD_FORMAT_VERSION)
+                .add(template.getId())
+                .add(template.getHtmlContent());
+        addAll(base, variables);
+        String baseFingerprint = base.toHex();
         
-        // Apply customizations
-        htmlContent = applyCustomizations(htmlContent, deployment);
+        // For cache busting; changes exactly when the rendered inputs do
+        variables.put("timestamp", baseFingerprint);
         
-        log.info("Portfolio built successfully for: {}", deployment.getDeploymentId());
-        return htmlContent;
+        String customization = ContentFingerprint.create()
+                .add(BUILD_FORMAT_VERSION)
+                .add(deployment.getCustomCSS())
+                .add(deployment.getCustomJS())
+                .add(deployment.getAnalyticsId())
+                .toHex();
+        
+        return new BuildPlan(variables, baseFingerprint, customization);
     }
     
-    private Context createTemplateContext(User user, UserProfile userProfile, DeployedPortfolio deployment) {
+    /**
+     * Renders the template with the user's data, without the customization splice. A template
+     * that fails to render fails the build, so nothing is stored under the plan's fingerprints.
+     */
+    public String renderBase(DeployedPortfolio deployment, BuildPlan plan) {
+        // Create template context
         Context context = new Context();
+        context.setVariables(plan.getVariables());
+        
+        // Process template
+        return processTemplate(deployment.getTemplate(), context);
+    }
+    
+    // Plain maps rather than the entities, which carry fields the fingerprint does not cover
+    private Map<String, Object> createTemplateVariables(User user, UserProfile userProfile, DeployedPortfolio deployment) {
+        Map<String, Object> variables = new LinkedHashMap<>();
         
         // User information
-        context.setVariable("user", user);
-        context.setVariable("profile", userProfile);
-        context.setVariable("deployment", deployment);
+        Map<String, Object> userData = new LinkedHashMap<>();
+        userData.put("firstName", user.getFirstName());
+        userData.put("lastName", user.getLastName());
+        userData.put("email", user.getEmail());
+        variables.put("user", userData);
+        
+        Map<String, Object> profileData = null;
+        if (userProfile != null) {
+            profileData = new LinkedHashMap<>();
+            profileData.put("displayName", userProfile.getDisplayName());
+            profileData.put("profession", userProfile.getProfession());
+            profileData.put("bio", userProfile.getBio());
+            profileData.put("location", userProfile.getLocation());
+            profileData.put("phoneNumber", userProfile.getPhoneNumber());
+            profileData.put("website", userProfile.getWebsite());
+            profileData.put("linkedinUrl", userProfile.getLinkedinUrl());
+            profileData.put("githubUrl", userProfile.getGithubUrl());
+            profileData.put("twitterUrl", userProfile.getTwitterUrl());
+            profileData.put("skills", userProfile.getSkills());
+            profileData.put("experience", userProfile.getExperience());
+            profileData.put("education", userProfile.getEducation());
+            profileData.put("certifications", userProfile.getCertifications());
+            profileData.put("profileImageUrl", userProfile.getProfileImageUrl());
+            profileData.put("resumeUrl", userProfile.getResumeUrl());
+            profileData.put("yearsOfExperience", userProfile.getYearsOfExperience());
+            profileData.put("availableForHire", userProfile.getAvailableForHire());
+        }
+        variables.put("profile", profileData);
+        
+        Map<String, Object> deploymentData = new LinkedHashMap<>();
+        deploymentData.put("title", deployment.getTitle());
+        deploymentData.put("description", deployment.getDescription());
+        deploymentData.put("metaTitle", deployment.getMetaTitle());
+        deploymentData.put("metaDescription", deployment.getMetaDescription());
+        deploymentData.put("metaKeywords", deployment.getMetaKeywords());
+        deploymentData.put("ogTitle", deployment.getOgTitle());
+        deploymentData.put("ogDescription", deployment.getOgDescription());
+        deploymentData.put("ogImage", deployment.getOgImage());
+        deploymentData.put("subdomain", deployment.getSubdomain());
+        deploymentData.put("publicUrl", deployment.getPublicUrl());
+        deploymentData.put("customDomain", deployment.getCustomDomain());
+        variables.put("deployment", deploymentData);
         
         // SEO and meta information
-        context.setVariable("title", deployment.getTitle());
-        context.setVariable("description", deployment.getDescription());
-        context.setVariable("metaTitle", deployment.getMetaTitle());
-        context.setVariable("metaDescription", deployment.getMetaDescription());
-        context.setVariable("metaKeywords", deployment.getMetaKeywords());
+        variables.put("title", deployment.getTitle());
+        variables.put("description", deployment.getDescription());
+        variables.put("metaTitle", deployment.getMetaTitle());
+        variables.put("metaDescription", deployment.getMetaDescription());
+        variables.put("metaKeywords", deployment.getMetaKeywords());
         
         // Portfolio data
-        Map<String, Object> portfolioData = new HashMap<>();
+        Map<String, Object> portfolioData = new LinkedHashMap<>();
         portfolioData.put("fullName", user.getFirstName() + " " + user.getLastName());
         portfolioData.put("email", user.getEmail());
         
@@ -82,12 +170,27 @@ public class PortfolioBuilderService {
             portfolioData.put("availableForHire", userProfile.getAvailableForHire());
         }
         
-        context.setVariable("portfolio", portfolioData);
+        variables.put("portfolio", portfolioData);
         
-        // Current timestamp for cache busting
-        context.setVariable("timestamp", System.currentTimeMillis());
-        
-        return context;
+        return variables;
+    }
+    
+    // Keys and values in insertion order, nested maps and arrays element by element
+    private static void addAll(ContentFingerprint fingerprint, Map<?, ?> values) {
+        fingerprint.add(values.size());
+        values.forEach((key, value) -> {
+            fingerprint.add(key);
+            if (value instanceof Map<?, ?> nested) {
+                addAll(fingerprint, nested);
+            } else if (value instanceof Object[] array) {
+                fingerprint.add(array.length);
+                for (Object element : array) {
+                    fingerprint.add(element);
+                }
+            } else {
+                fingerprint.add(value);
+            }
+        });
     }
     
     private String processTemplate(PortfolioTemplate template, Context context) {
@@ -95,39 +198,29 @@ public class PortfolioBuilderService {
             // Create a template from the stored HTML content
             String templateContent = template.getHtmlContent();
             
-            // Process with Thymeleaf if it contains Thymeleaf syntax
+            // Process with Thymeleaf if it contains Thymeleaf syntax, resolved by id and
+            // version so the parsed template is cached across builds
             if (templateContent.contains("th:")) {
-                return templateEngine.process(templateContent, context);
+                return templateEngine.process(StoredTemplateResolver.portfolioTemplateName(template), context);
             } else {
                 // Simple variable replacement for non-Thymeleaf templates
-                return replaceVariables(templateContent, context);
+                return replaceVariables(template, context);
             }
             
         } catch (Exception e) {
             log.error("Error processing template: {}", template.getId(), e);
-            return generateFallbackPortfolio(context);
+            throw new RuntimeException("Failed to render template " + template.getId() + ": " + e.getMessage(), e);
         }
     }
     
-    private String replaceVariables(String template, Context context) {
-        String result = template;
-        
-        // Replace common variables
-        Map<String, Object> variables = context.getVariables();
-        for (Map.Entry<String, Object> entry : variables.entrySet()) {
-            String key = entry.getKey();
-            Object value = entry.getValue();
-            
-            if (value != null) {
-                String placeholder = "{{" + key + "}}";
-                result = result.replace(placeholder, value.toString());
-            }
-        }
-        
-        return result;
+    private String replaceVariables(PortfolioTemplate template, Context context) {
+        // Compiled once per template version, then rendered in a single pass
+        PlaceholderTemplate compiled = placeholderTemplateCache.get(
+                StoredTemplateResolver.portfolioTemplateName(template), template.getHtmlContent());
+        return compiled.render(context::getVariable);
     }
     
-    private String applyCustomizations(String htmlContent, DeployedPortfolio deployment) {
+    public String applyCustomizations(String htmlContent, DeployedPortfolio deployment) {
         StringBuilder result = new StringBuilder(htmlContent);
         
         // Add custom CSS
@@ -177,23 +270,6 @@ public class PortfolioBuilderService {
             """, analyticsId, analyticsId);
     }
     
-    private String generateFallbackPortfolio(Context context) {
-        return """
-            <!DOCTYPE html>
-            <html>
-            <head>
-                <meta charset="UTF-8">
-                <title>Portfolio</title>
-                <meta name="viewport" content="width=device-width, initial-scale=1.0">
-            </head>
-            <body>
-                <h1>Portfolio</h1>
-                <p>This is a fallback portfolio template.</p>
-            </body>
-            </html>
-            """;
-    }
-    
     private String[] parseSkills(String skills) {
         if (skills == null || skills.trim().isEmpty()) {
             return new String[0];
@@ -212,4 +288,13 @@ public class PortfolioBuilderService {
     private String parseCertifications(String certifications) {
         return certifications != null ? certifications : "";
     }
+    
+    @Getter
+    @AllArgsConstructor
+    public static class BuildPlan {
+        // The template variables, exactly what the base fingerprint covers
+        private final Map<String, Object> variables;
+        private final String baseFingerprint;
+        private final String customizationFingerprint;
+    }
 }
@@ -131,7 +131,7 @@ public class PortfolioDataGenerationService {
     }
     
     private Mono<PortfolioData> enhanceWithGitHubData(PortfolioData portfolioData, String githubUsername) {
-        return gitHubIntegrationService.fetchGitHubProfile(githubUsername)
+        return gitHubIntegrationService.getGitHubProfile(githubUsername)
                 .map(githubProfile -> {
                     // Update personal info with GitHub data
                     if (portfolioData.getPersonalInfo().getProfileImage() == null && githubProfile.getAvatarUrl() != null) {
@@ -142,11 +142,8 @@ public class PortfolioDataGenerationService {
                         portfolioData.getPersonalInfo().setBio(githubProfile.getBio());
                     }
                     
-                    // Convert repositories to projects
+                    // The profile carries only the most starred own repositories, in order
                     List<PortfolioData.Project> projects = githubProfile.getRepositories().stream()
-                            .filter(repo -> !repo.isFork()) // Exclude forked repositories
-                            .sorted((a, b) -> Integer.compare(b.getStargazersCount(), a.getStargazersCount()))
-                            .limit(10) // Top 10 repositories
                             .map(repo -> PortfolioData.Project.builder()
                                     .name(repo.getName())
                                     .description(repo.getDescription())
@@ -161,19 +158,8 @@ public class PortfolioDataGenerationService {
                     
                     portfolioData.setProjects(projects);
                     
-                    // Extract and update skills/languages
-                    Map<String, Integer> languageCount = githubProfile.getRepositories().stream()
-                            .filter(repo -> repo.getLanguage() != null)
-                            .collect(Collectors.groupingBy(
-                                    GitHubProfile.Repository::getLanguage,
-                                    Collectors.summingInt(repo -> 1)
-                            ));
-                    
-                    List<String> topLanguages = languageCount.entrySet().stream()
-                            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                            .limit(10)
-                            .map(Map.Entry::getKey)
-                            .collect(Collectors.toList());
+                    // Languages are counted over every repository, most used first
+                    List<String> topLanguages = githubProfile.getLanguages();
                     
                     // Merge with existing skills
                     Set<String> allSkills = new HashSet<>(portfolioData.getSkills());
@@ -183,8 +169,8 @@ public class PortfolioDataGenerationService {
                     // Update stats
                     PortfolioData.Stats updatedStats = PortfolioData.Stats.builder()
                             .totalProjects(projects.size())
-                            .totalStars(projects.stream().mapToInt(PortfolioData.Project::getStars).sum())
-                            .totalForks(projects.stream().mapToInt(PortfolioData.Project::getForks).sum())
+                            .totalStars(githubProfile.getTotalStars())
+                            .totalForks(githubProfile.getTotalForks())
                             .totalRepositories(githubProfile.getPublicRepos())
                             .githubFollowers(githubProfile.getFollowers())
                             .topLanguages(topLanguages.stream().limit(5).collect(Collectors.toList()))
@@ -9,8 +9,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,14 +24,17 @@ import java.util.UUID;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
 public class PortfolioDeploymentService {
     
     private final DeployedPortfolioRepository deployedPortfolioRepository;
     private final PortfolioTemplateRepository templateRepository;
     private final UserProfileRepository userProfileRepository;
     private final ActivityLogService activityLogService;
+    private final ActivityRollupService activityRollupService;
     private final PortfolioBuilderService portfolioBuilderService;
+    private final PortfolioArtifactStore portfolioArtifactStore;
+    private final DeploymentJobQueue deploymentJobQueue;
+    private final MongoTemplate mongoTemplate;
     
     @Value("${app.deployment.base-url:https://portfolios.vizfolicraft.com}")
     private String baseDeploymentUrl;
@@ -117,41 +124,125 @@ public class PortfolioDeploymentService {
         activityLogService.logActivity(user, ActivityLog.ActivityType.TEMPLATE_SELECTION, 
                 "Selected template: " + template.getName(), "template", template.getId());
         
-        // Start async deployment process
-        startDeploymentProcess(deployment);
+        // Hand the build to the worker pool, the caller gets the PENDING record back
+        try {
+            enqueueDeployment(user, deployment);
+        } catch (IllegalStateException e) {
+            deployedPortfolioRepository.delete(deployment);
+            throw e;
+        }
+        activityRollupService.recordDeploymentCreated(deployment);
         
         return deployment;
     }
     
-    private void startDeploymentProcess(DeployedPortfolio deployment) {
+    private void enqueueDeployment(User user, DeployedPortfolio deployment) {
+        String id = deployment.getId();
+        // Workers have no request, take what the activity log needs now
+        RequestMetadata request = RequestMetadata.capture();
+        deploymentJobQueue.submit(user.getId(), id, () ->
+                deployedPortfolioRepository.findById(id).ifPresentOrElse(
+                        loaded -> startDeploymentProcess(loaded, request),
+                        () -> log.warn("Deployment {} vanished before it could be built", id)));
+    }
+    
+    /**
+     * Moves the deployment to {@code status}, writing only the status and {@code changes}. The
+     * write applies only while the deployment is active and still in the status this job last
+     * saw, so a delete or an edit landing mid-build is never overwritten. Returns false when
+     * the deployment moved on without this job.
+     */
+    private boolean updateStatus(DeployedPortfolio deployment, DeployedPortfolio.DeploymentStatus status, Update changes) {
+        DeployedPortfolio.DeploymentStatus previous = deployment.getStatus();
+        Query query = Query.query(Criteria.where("_id").is(deployment.getId())
+                .and("isActive").is(true)
+                .and("status").is(previous));
+        LocalDateTime now = LocalDateTime.now();
+        
+        if (mongoTemplate.updateFirst(query, changes.set("status", status).set("lastUpdated", now),
+                DeployedPortfolio.class).getMatchedCount() == 0) {
+            log.info("Deployment {} changed while it was being built, dropping the move to {}",
+                    deployment.getDeploymentId(), status);
+            return false;
+        }
+        
+        deployment.setStatus(status);
+        deployment.setLastUpdated(now);
+        deploymentJobQueue.publish(deployment.getId(), status);
+        activityRollupService.recordDeploymentStatus(previous, status, now);
+        return true;
+    }
+    
+    // A build that lost the race with a delete must not leave its files published
+    private void discardIfDisabled(DeployedPortfolio deployment) {
+        deployedPortfolioRepository.findById(deployment.getId())
+                .filter(current -> !current.isActive())
+                .ifPresent(current -> portfolioArtifactStore.delete(current.getDeploymentId()));
+    }
+    
+    private void startDeploymentProcess(DeployedPortfolio deployment, RequestMetadata request) {
         try {
             log.info("Starting deployment process for: {}", deployment.getDeploymentId());
             
+            PortfolioBuilderService.BuildPlan plan = portfolioBuilderService.planBuild(deployment);
+            boolean baseUnchanged = plan.getBaseFingerprint().equals(deployment.getBaseFingerprint());
+            boolean customizationsUnchanged =
+                    plan.getCustomizationFingerprint().equals(deployment.getCustomizationFingerprint());
+            
+            // Nothing that feeds the page changed and the last build is still on disk
+            if (baseUnchanged && customizationsUnchanged
+                    && portfolioArtifactStore.exists(deployment.getDeploymentId(), deployment.getBuildVersion())) {
+                log.info("No content changes for deployment {}, skipping build", deployment.getDeploymentId());
+                updateStatus(deployment, DeployedPortfolio.DeploymentStatus.DEPLOYED,
+                        new Update().set("buildLog", "No changes detected, build skipped"));
+                return;
+            }
+            
             // Update status to building
-            deployment.setStatus(DeployedPortfolio.DeploymentStatus.BUILDING);
-            deployment.setLastBuildTime(LocalDateTime.now());
-            deployedPortfolioRepository.save(deployment);
+            if (!updateStatus(deployment, DeployedPortfolio.DeploymentStatus.BUILDING,
+                    new Update().set("lastBuildTime", LocalDateTime.now()))) {
+                return;
+            }
             
-            // Build portfolio content
-            String portfolioContent = portfolioBuilderService.buildPortfolio(deployment);
+            // Reuse the base render when only customizations changed
+            String baseRender = baseUnchanged
+                    ? portfolioArtifactStore.loadBaseRender(deployment.getDeploymentId(), plan.getBaseFingerprint()).orElse(null)
+                    : null;
+            if (baseRender == null) {
+                baseRender = portfolioBuilderService.renderBase(deployment, plan);
+                portfolioArtifactStore.storeBaseRender(deployment.getDeploymentId(), plan.getBaseFingerprint(), baseRender);
+            } else {
+                log.info("Reusing base render for deployment {}, re-applying customizations only", deployment.getDeploymentId());
+            }
+            String portfolioContent = portfolioBuilderService.applyCustomizations(baseRender, deployment);
+            
+            // Persist the build with all encoding variants
+            String buildVersion = portfolioArtifactStore.store(deployment.getDeploymentId(), portfolioContent);
             
             // Update status to deploying
-            deployment.setStatus(DeployedPortfolio.DeploymentStatus.DEPLOYING);
-            deployedPortfolioRepository.save(deployment);
+            if (!updateStatus(deployment, DeployedPortfolio.DeploymentStatus.DEPLOYING, new Update())) {
+                discardIfDisabled(deployment);
+                return;
+            }
             
             // Deploy to platform
             String finalUrl = deployToplatform(deployment, portfolioContent);
             
             // Update deployment with success
-            deployment.setStatus(DeployedPortfolio.DeploymentStatus.DEPLOYED);
-            deployment.setPublicUrl(finalUrl);
-            deployment.setDeployedAt(LocalDateTime.now());
-            deployment.setBuildVersion("1.0.0");
-            deployment.setBuildLog("Deployment successful");
-            deployedPortfolioRepository.save(deployment);
+            Update success = new Update()
+                    .set("publicUrl", finalUrl)
+                    .set("deployedAt", LocalDateTime.now())
+                    .set("buildVersion", buildVersion)
+                    .set("baseFingerprint", plan.getBaseFingerprint())
+                    .set("customizationFingerprint", plan.getCustomizationFingerprint())
+                    .set("buildLog", "Deployment successful");
+            if (!updateStatus(deployment, DeployedPortfolio.DeploymentStatus.DEPLOYED, success)) {
+                discardIfDisabled(deployment);
+                return;
+            }
             
             // Log successful deployment
-            activityLogService.logActivity(deployment.getUser(), ActivityLog.ActivityType.PORTFOLIO_DEPLOYMENT,
+            activityLogService.logActivity(request, deployment.getUser(), ActivityLog.ActivityType.PORTFOLIO_DEPLOYMENT,
                     "Portfolio deployed successfully to: " + finalUrl, "deployment", deployment.getId());
             
             log.info("Portfolio deployment completed successfully: {}", finalUrl);
@@ -159,11 +250,10 @@ public class PortfolioDeploymentService {
         } catch (Exception e) {
             log.error("Deployment failed for: {}", deployment.getDeploymentId(), e);
             
-            deployment.setStatus(DeployedPortfolio.DeploymentStatus.FAILED);
-            deployment.setBuildLog("Deployment failed: " + e.getMessage());
-            deployedPortfolioRepository.save(deployment);
+            updateStatus(deployment, DeployedPortfolio.DeploymentStatus.FAILED,
+                    new Update().set("buildLog", "Deployment failed: " + e.getMessage()));
             
-            activityLogService.logActivity(deployment.getUser(), ActivityLog.ActivityType.ERROR,
+            activityLogService.logActivity(request, deployment.getUser(), ActivityLog.ActivityType.ERROR,
                     "Portfolio deployment failed: " + e.getMessage(), "deployment", deployment.getId());
         }
     }
@@ -174,6 +264,11 @@ public class PortfolioDeploymentService {
         log.info("Deploying to platform: {} for deployment: {}", 
                 deployment.getPlatform(), deployment.getDeploymentId());
         
+        // Internal CDN serves straight from the artifact store, nothing to upload
+        if (deployment.getPlatform() == DeployedPortfolio.DeploymentPlatform.INTERNAL_CDN) {
+            return deployment.getPublicUrl();
+        }
+        
         // Simulate deployment delay
         try {
             Thread.sleep(2000);
@@ -220,20 +315,39 @@ public class PortfolioDeploymentService {
         
         DeployedPortfolio deployment = deploymentOpt.get();
         
-        // Update fields
-        if (request.getTitle() != null) deployment.setTitle(request.getTitle());
-        if (request.getDescription() != null) deployment.setDescription(request.getDescription());
-        if (request.getCustomCSS() != null) deployment.setCustomCSS(request.getCustomCSS());
-        if (request.getCustomJS() != null) deployment.setCustomJS(request.getCustomJS());
-        if (request.getMetaTitle() != null) deployment.setMetaTitle(request.getMetaTitle());
-        if (request.getMetaDescription() != null) deployment.setMetaDescription(request.getMetaDescription());
-        if (request.isPublic() != null) deployment.setIsPublic(request.isPublic());
+        // Update only the edited fields, a build running meanwhile keeps its own
+        Update update = new Update();
+        if (request.getTitle() != null) update.set("title", request.getTitle());
+        if (request.getDescription() != null) update.set("description", request.getDescription());
+        if (request.getCustomCSS() != null) update.set("customCSS", request.getCustomCSS());
+        if (request.getCustomJS() != null) update.set("customJS", request.getCustomJS());
+        if (request.getMetaTitle() != null) update.set("metaTitle", request.getMetaTitle());
+        if (request.getMetaDescription() != null) update.set("metaDescription", request.getMetaDescription());
+        if (request.isPublic() != null) update.set("isPublic", request.isPublic());
         
-        deployment.setLastUpdated(LocalDateTime.now());
+        DeployedPortfolio.DeploymentStatus previous = deployment.getStatus();
+        LocalDateTime now = LocalDateTime.now();
+        update.set("lastUpdated", now)
+                .set("status", DeployedPortfolio.DeploymentStatus.UPDATING);
+        Query active = Query.query(Criteria.where("_id").is(deploymentId).and("isActive").is(true));
+        if (mongoTemplate.updateFirst(active, update, DeployedPortfolio.class).getMatchedCount() == 0) {
+            throw new RuntimeException("Deployment not found or access denied");
+        }
         
-        // Save and redeploy
-        deployment = deployedPortfolioRepository.save(deployment);
-        startDeploymentProcess(deployment);
+        // Queue the rebuild; the previous build keeps serving until it lands
+        try {
+            enqueueDeployment(user, deployment);
+        } catch (IllegalStateException e) {
+            // Nothing will build it, put the status back unless something else moved it meanwhile
+            mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(deploymentId)
+                            .and("status").is(DeployedPortfolio.DeploymentStatus.UPDATING)),
+                    new Update().set("status", previous),
+                    DeployedPortfolio.class);
+            throw e;
+        }
+        activityRollupService.recordDeploymentStatus(previous, DeployedPortfolio.DeploymentStatus.UPDATING, now);
+        deployment = deployedPortfolioRepository.findById(deploymentId).orElse(deployment);
         
         activityLogService.logActivity(user, ActivityLog.ActivityType.PORTFOLIO_UPDATE,
                 "Updated portfolio deployment", "deployment", deploymentId);
@@ -248,11 +362,18 @@ public class PortfolioDeploymentService {
         }
         
         DeployedPortfolio deployment = deploymentOpt.get();
-        deployment.setIsActive(false);
-        deployment.setStatus(DeployedPortfolio.DeploymentStatus.DISABLED);
-        deployment.setLastUpdated(LocalDateTime.now());
+        DeployedPortfolio.DeploymentStatus previous = deployment.getStatus();
+        LocalDateTime now = LocalDateTime.now();
         
-        deployedPortfolioRepository.save(deployment);
+        // Targeted so a build finishing meanwhile cannot bring it back; its status moves fail from here on
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(deploymentId)),
+                new Update().set("isActive", false)
+                        .set("status", DeployedPortfolio.DeploymentStatus.DISABLED)
+                        .set("lastUpdated", now),
+                DeployedPortfolio.class);
+        deploymentJobQueue.publish(deployment.getId(), DeployedPortfolio.DeploymentStatus.DISABLED);
+        activityRollupService.recordDeploymentStatus(previous, DeployedPortfolio.DeploymentStatus.DISABLED, now);
+        portfolioArtifactStore.delete(deployment.getDeploymentId());
         
         activityLogService.logActivity(user, ActivityLog.ActivityType.PORTFOLIO_DELETE,
                 "Deleted portfolio deployment", "deployment", deploymentId);
@@ -264,10 +385,38 @@ public class PortfolioDeploymentService {
         return deployedPortfolioRepository.findByUserAndIsActiveTrue(user);
     }
     
+    public Flux<DeployedPortfolio.DeploymentStatus> followDeploymentStatus(User user, String deploymentId) {
+        // Grab the live stream before reading the stored status so a transition in between is not lost
+        Flux<DeployedPortfolio.DeploymentStatus> updates = deploymentJobQueue.statusUpdates(deploymentId);
+        
+        Optional<DeployedPortfolio> deploymentOpt = deployedPortfolioRepository.findById(deploymentId);
+        if (deploymentOpt.isEmpty() || !deploymentOpt.get().getUser().getId().equals(user.getId())) {
+            throw new RuntimeException("Deployment not found or access denied");
+        }
+        
+        DeployedPortfolio.DeploymentStatus current = deploymentOpt.get().getStatus();
+        if (deploymentJobQueue.isTerminal(current)) {
+            return Flux.just(current);
+        }
+        return Flux.just(current).concatWith(updates).distinctUntilChanged();
+    }
+    
     public Optional<DeployedPortfolio> getDeploymentByUrl(String url) {
         return deployedPortfolioRepository.findByPublicUrl(url);
     }
     
+    public Optional<DeployedPortfolio> getServableDeploymentBySubdomain(String subdomain) {
+        return deployedPortfolioRepository.findBySubdomain(subdomain)
+                .filter(deployment -> deployment.isActive() && deployment.isPublic() && !deployment.isPasswordProtected())
+                // A rebuild in progress keeps serving the last successful build
+                .filter(deployment -> deployment.getBuildVersion() != null)
+                .filter(deployment -> deployment.getStatus() != DeployedPortfolio.DeploymentStatus.DISABLED);
+    }
+    
+    public Optional<PortfolioArtifactStore.Artifact> resolveArtifact(DeployedPortfolio deployment, String acceptEncoding) {
+        return portfolioArtifactStore.resolve(deployment.getDeploymentId(), deployment.getBuildVersion(), acceptEncoding);
+    }
+    
     public Page<DeployedPortfolio> getPublicPortfolios(Pageable pageable) {
         return deployedPortfolioRepository.findPublicPortfolios(pageable);
     }
@@ -0,0 +1,79 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.yourcompany.portfoliogenerator.model.User;
+import com.yourcompany.portfoliogenerator.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Short-lived, bounded cache of authenticated principals keyed by the token's user id, so
+ * the JWT filter does not hit Mongo on every request. Entries are hydrated from the database
+ * on a miss, which keeps role and enabled state authoritative; admin changes evict the user
+ * immediately, everything else converges within the TTL.
+ */
+@Component
+@Slf4j
+public class PrincipalCache {
+
+    private static final String USERNAME_KEY_PREFIX = "name:";
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final Map<String, CachedPrincipal> entries;
+
+    public PrincipalCache(UserRepository userRepository,
+                          @Value("${app.security.principal-cache.ttl-seconds:30}") long ttlSeconds,
+                          @Value("${app.security.principal-cache.max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the user for a verified token, or null if it no longer exists. Tokens issued
+     * before the user id claim was added are resolved by username.
+     */
+    public User resolve(String userId, String username) {
+        String key = userId != null ? userId : USERNAME_KEY_PREFIX + username;
+        long now = System.currentTimeMillis();
+
+        synchronized (entries) {
+            CachedPrincipal cached = entries.get(key);
+            if (cached != null && cached.expiresAt > now) {
+                return cached.user;
+            }
+        }
+
+        User user = userId != null
+                ? userRepository.findById(userId).orElse(null)
+                : userRepository.findByUsername(username).orElse(null);
+        if (user == null) {
+            return null;
+        }
+
+        synchronized (entries) {
+            entries.put(key, new CachedPrincipal(user, now + ttlMillis));
+        }
+        return user;
+    }
+
+    public void evict(User user) {
+        synchronized (entries) {
+            entries.remove(user.getId());
+            entries.remove(USERNAME_KEY_PREFIX + user.getUsername());
+        }
+        log.debug("Evicted cached principal {}", user.getUsername());
+    }
+
+    private record CachedPrincipal(User user, long expiresAt) {
+    }
+}
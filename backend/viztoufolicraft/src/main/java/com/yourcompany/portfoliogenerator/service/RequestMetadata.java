@@ -0,0 +1,50 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Client details of the current HTTP request, copied out on the request thread so they can
+ * travel with work that finishes on another thread after the request is gone.
+ */
+public record RequestMetadata(String ipAddress, String userAgent, String sessionId) {
+
+    // Outside of a request, e.g. background jobs
+    public static final RequestMetadata NONE = new RequestMetadata("unknown", "unknown", "no-session");
+
+    /**
+     * Snapshot of the request bound to the calling thread, or {@link #NONE}. Never creates a
+     * session.
+     */
+    public static RequestMetadata capture() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return NONE;
+        }
+
+        HttpServletRequest request = servletAttributes.getRequest();
+        HttpSession session = request.getSession(false);
+        return new RequestMetadata(
+                clientIpAddress(request),
+                request.getHeader("User-Agent"),
+                session != null ? session.getId() : "no-session");
+    }
+
+    private static String clientIpAddress(HttpServletRequest request) {
+        String xForwardedFor = request.getHeader("X-Forwarded-For");
+        if (xForwardedFor != null && !xForwardedFor.isEmpty() && !"unknown".equalsIgnoreCase(xForwardedFor)) {
+            int comma = xForwardedFor.indexOf(',');
+            return (comma >= 0 ? xForwardedFor.substring(0, comma) : xForwardedFor).trim();
+        }
+
+        String xRealIp = request.getHeader("X-Real-IP");
+        if (xRealIp != null && !xRealIp.isEmpty() && !"unknown".equalsIgnoreCase(xRealIp)) {
+            return xRealIp;
+        }
+
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,172 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.yourcompany.portfoliogenerator.model.GeneratedResume;
+import com.yourcompany.portfoliogenerator.model.ResumeBlob;
+import com.yourcompany.portfoliogenerator.model.ResumeTemplate;
+import com.yourcompany.portfoliogenerator.template.StoredTemplateResolver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Content-addressed storage for rendered resumes under {@code <storage>/cas/}. Identical
+ * inputs (template version, format and portfolio data) map to one file, shared by all
+ * {@link GeneratedResume} records that reference it; the file is removed when the last
+ * reference is released. Every write goes to a file name of its own, and only the file named
+ * in the blob document is ever deleted, so a release never removes bytes a concurrent store
+ * of the same key just published.
+ */
+@Service
+@Slf4j
+public class ResumeBlobStore {
+
+    // Bump when rendering changes so old blobs stop matching
+    private static final String RENDER_VERSION = "1";
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper canonicalMapper;
+
+    @Value("${app.resume.storage.path:./resumes}")
+    private String resumeStoragePath;
+
+    public ResumeBlobStore(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        // Stable property and key order, so equal data always serializes to the same bytes
+        this.canonicalMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+                .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                .build();
+    }
+
+    public String contentKey(ResumeTemplate template, GeneratedResume.FileFormat format, PortfolioData portfolioData) {
+        ObjectNode data = canonicalMapper.valueToTree(portfolioData);
+        // Generation timestamp, differs on every run
+        data.remove("lastUpdated");
+
+        try {
+            return ContentFingerprint.create()
+                    .add(RENDER_VERSION)
+                    .add(StoredTemplateResolver.resumeTemplateName(template))
+                    .add(format)
+                    .add(canonicalMapper.writeValueAsString(data))
+                    .toHex();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize portfolio data", e);
+        }
+    }
+
+    /**
+     * Takes a reference on an existing blob, if one with this key is stored.
+     */
+    public Optional<ResumeBlob> acquire(String contentKey) {
+        ResumeBlob blob = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(contentKey)),
+                new Update().inc("refCount", 1).set("lastReferencedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                ResumeBlob.class);
+        if (blob == null) {
+            return Optional.empty();
+        }
+
+        if (!Files.exists(Paths.get(blob.getFilePath()))) {
+            // Lost a race with the last release; render again
+            log.warn("Resume blob {} has no file on disk, re-rendering", contentKey);
+            release(contentKey);
+            return Optional.empty();
+        }
+        return Optional.of(blob);
+    }
+
+    /**
+     * Moves a freshly rendered file into the store and takes a reference on it.
+     */
+    public ResumeBlob store(String contentKey, GeneratedResume.FileFormat format, Path renderedFile) throws IOException {
+        Path target = blobPath(contentKey, format);
+        Files.createDirectories(target.getParent());
+        Files.move(renderedFile, target, StandardCopyOption.ATOMIC_MOVE);
+
+        LocalDateTime now = LocalDateTime.now();
+        ResumeBlob blob = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(contentKey)),
+                new Update()
+                        .inc("refCount", 1)
+                        .set("lastReferencedAt", now)
+                        .setOnInsert("format", format)
+                        .setOnInsert("filePath", target.toString())
+                        .setOnInsert("fileSize", Files.size(target))
+                        .setOnInsert("createdAt", now),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                ResumeBlob.class);
+
+        if (!target.toString().equals(blob.getFilePath())) {
+            // Same content stored concurrently, keep the bytes the document points at
+            Files.deleteIfExists(target);
+        }
+        return blob;
+    }
+
+    /**
+     * Drops a reference and deletes the file once nothing points at it.
+     */
+    public void release(String contentKey) {
+        ResumeBlob blob = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(contentKey)),
+                new Update().inc("refCount", -1),
+                FindAndModifyOptions.options().returnNew(true),
+                ResumeBlob.class);
+        if (blob == null || blob.getRefCount() > 0) {
+            return;
+        }
+
+        // Only delete if no acquire or store slipped in since the decrement, and only the file
+        // of the document actually removed
+        ResumeBlob removed = mongoTemplate.findAndRemove(
+                Query.query(Criteria.where("_id").is(contentKey).and("refCount").lte(0)),
+                ResumeBlob.class);
+        if (removed != null) {
+            try {
+                Files.deleteIfExists(Paths.get(removed.getFilePath()));
+                log.info("Deleted unreferenced resume blob {}", contentKey);
+            } catch (IOException e) {
+                log.warn("Could not delete resume blob file {}: {}", removed.getFilePath(), e.getMessage());
+            }
+        }
+    }
+
+    public Path newStagingFile() throws IOException {
+        Path casDir = casRoot();
+        Files.createDirectories(casDir);
+        return Files.createTempFile(casDir, ".render-", ".tmp");
+    }
+
+    private Path blobPath(String contentKey, GeneratedResume.FileFormat format) {
+        // Two-character fan-out keeps directories small; the nonce keeps concurrent writes apart
+        return casRoot().resolve(contentKey.substring(0, 2))
+                .resolve(contentKey + "-" + UUID.randomUUID() + "." + format.name().toLowerCase());
+    }
+
+    private Path casRoot() {
+        return Paths.get(resumeStoragePath).resolve("cas");
+    }
+}
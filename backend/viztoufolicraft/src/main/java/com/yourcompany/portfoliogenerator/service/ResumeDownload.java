@@ -0,0 +1,18 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.nio.file.Path;
+
+@Data
+@Builder
+public class ResumeDownload {
+    private String resumeId;
+    private Path path;
+    private String fileName;
+    private String contentType;
+    private long length;
+    private long lastModified;
+    private String eTag;
+}
@@ -0,0 +1,135 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs resume generation off the request thread. Input data is gathered asynchronously, then
+ * the render itself runs on a fixed pool of platform threads sized to the CPU count, because
+ * PDF layout is CPU-bound. Admission is bounded over both stages, so a burst is turned away
+ * at submission instead of piling up.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ResumeGenerationQueue {
+
+    private final MeterRegistry meterRegistry;
+
+    // 0 means one worker per available processor
+    @Value("${app.resume.generation.workers:0}")
+    private int workers;
+
+    @Value("${app.resume.generation.queue-capacity:200}")
+    private int queueCapacity;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private ThreadPoolExecutor executor;
+    private Timer waitTimer;
+    private Timer renderTimer;
+
+    @PostConstruct
+    public void start() {
+        int poolSize = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("resume-render-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("resume.generation.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Resume renders waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("resume.generation.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Resume renders currently running")
+                .register(meterRegistry);
+        Gauge.builder("resume.generation.in.flight", inFlight, AtomicInteger::get)
+                .description("Accepted resume generations not yet finished")
+                .register(meterRegistry);
+        waitTimer = Timer.builder("resume.generation.wait")
+                .description("Time a resume render waited for a worker")
+                .register(meterRegistry);
+        renderTimer = Timer.builder("resume.generation.render")
+                .description("Time spent rendering a resume")
+                .register(meterRegistry);
+
+        log.info("Resume generation pool started with {} workers and capacity {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Resume workers did not finish in time, {} renders abandoned", executor.getQueue().size());
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Accepts a generation job: {@code input} is resolved asynchronously, then {@code render}
+     * runs on the render pool. {@code onError} receives failures from either stage.
+     *
+     * @throws IllegalStateException when the queue is full
+     */
+    public <T> void submit(String jobId, Mono<T> input, Consumer<T> render, Consumer<Throwable> onError) {
+        // Every accepted job fits in the executor queue, so the pool itself never rejects
+        if (inFlight.incrementAndGet() > queueCapacity) {
+            inFlight.decrementAndGet();
+            throw new IllegalStateException("Resume generation queue is full, try again later");
+        }
+
+        // Input suppliers may block (repository reads), keep them off the request thread
+        input.subscribeOn(Schedulers.boundedElastic())
+                .switchIfEmpty(Mono.error(new IllegalStateException("No input for resume generation " + jobId)))
+                .subscribe(
+                        value -> enqueueRender(jobId, value, render, onError),
+                        error -> {
+                            try {
+                                onError.accept(error);
+                            } finally {
+                                inFlight.decrementAndGet();
+                            }
+                        });
+    }
+
+    private <T> void enqueueRender(String jobId, T value, Consumer<T> render, Consumer<Throwable> onError) {
+        long readyAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                waitTimer.record(System.nanoTime() - readyAt, TimeUnit.NANOSECONDS);
+                try {
+                    renderTimer.record(() -> render.accept(value));
+                } catch (Exception e) {
+                    onError.accept(e);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Resume generation {} rejected, pool is shutting down", jobId);
+            try {
+                onError.accept(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -4,19 +4,24 @@ import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
 import com.yourcompany.portfoliogenerator.model.*;
 import com.yourcompany.portfoliogenerator.repository.GeneratedResumeRepository;
 import com.yourcompany.portfoliogenerator.repository.ResumeTemplateRepository;
+import com.yourcompany.portfoliogenerator.template.StoredTemplateResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
 import java.io.*;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
@@ -33,9 +38,9 @@ public class ResumeGeneratorService {
     private final GeneratedResumeRepository generatedResumeRepository;
     private final PortfolioDataGenerationService portfolioDataGenerationService;
     private final TemplateEngine templateEngine;
-    
-    @Value("${app.resume.storage.path:./resumes}")
-    private String resumeStoragePath;
+    private final ResumeGenerationQueue resumeGenerationQueue;
+    private final ResumeBlobStore resumeBlobStore;
+    private final MongoTemplate mongoTemplate;
     
     @Value("${app.resume.base-url:http://localhost:8080}")
     private String baseUrl;
@@ -69,42 +74,78 @@ public class ResumeGeneratorService {
                 .build();
         
         generatedResume = generatedResumeRepository.save(generatedResume);
+        String resumeId = generatedResume.getId();
         
+        // Data is gathered without blocking, the render runs on the bounded CPU pool
         try {
-            // Generate portfolio data
-            PortfolioData portfolioData = portfolioDataGenerationService.generatePortfolioData(user).block();
+            resumeGenerationQueue.submit(resumeId,
+                    portfolioDataGenerationService.generatePortfolioData(user),
+                    portfolioData -> renderResume(resumeId, portfolioData),
+                    error -> markFailed(resumeId, error));
+        } catch (IllegalStateException e) {
+            generatedResumeRepository.delete(generatedResume);
+            throw e;
+        }
+        
+        return generatedResume;
+    }
+    
+    private void renderResume(String resumeId, PortfolioData portfolioData) {
+        GeneratedResume generatedResume = generatedResumeRepository.findById(resumeId).orElse(null);
+        if (generatedResume == null) {
+            log.warn("Resume {} was deleted before it could be generated", resumeId);
+            return;
+        }
+        
+        ResumeTemplate template = generatedResume.getTemplate();
+        GeneratedResume.FileFormat format = generatedResume.getFormat();
+        try {
+            String contentKey = resumeBlobStore.contentKey(template, format, portfolioData);
             
-            // Generate the file based on format
-            String filePath = switch (format) {
-                case PDF -> generatePdfResume(generatedResume, template, portfolioData);
-                case HTML -> generateHtmlResume(generatedResume, template, portfolioData);
-                case DOCX -> generateDocxResume(generatedResume, template, portfolioData);
-            };
+            // Identical inputs were rendered before, share those bytes
+            ResumeBlob blob = resumeBlobStore.acquire(contentKey).orElse(null);
+            if (blob != null) {
+                log.info("Reusing rendered resume {} for {}", contentKey, resumeId);
+            } else {
+                Path stagingFile = resumeBlobStore.newStagingFile();
+                try {
+                    // Generate the file based on format
+                    switch (format) {
+                        case PDF -> generatePdfResume(template, portfolioData, stagingFile);
+                        case HTML -> generateHtmlResume(template, portfolioData, stagingFile);
+                        case DOCX -> generateDocxResume(template, portfolioData, stagingFile);
+                    }
+                    blob = resumeBlobStore.store(contentKey, format, stagingFile);
+                } finally {
+                    Files.deleteIfExists(stagingFile);
+                }
+            }
             
             // Update file info
-            File file = new File(filePath);
-            generatedResume.setFilePath(filePath);
-            generatedResume.setFileSize(file.length());
+            generatedResume.setContentHash(contentKey);
+            generatedResume.setFilePath(blob.getFilePath());
+            generatedResume.setFileSize(blob.getFileSize());
             generatedResume.setStatus(GeneratedResume.GenerationStatus.COMPLETED);
             
         } catch (Exception e) {
-            log.error("Error generating resume for user {}: {}", user.getUsername(), e.getMessage(), e);
+            log.error("Error generating resume {}: {}", resumeId, e.getMessage(), e);
             generatedResume.setStatus(GeneratedResume.GenerationStatus.FAILED);
         }
         
-        return generatedResumeRepository.save(generatedResume);
+        generatedResumeRepository.save(generatedResume);
     }
     
-    private String generatePdfResume(GeneratedResume generatedResume, ResumeTemplate template, PortfolioData portfolioData) throws IOException {
+    private void markFailed(String resumeId, Throwable error) {
+        log.error("Error generating resume {}: {}", resumeId, error.getMessage(), error);
+        generatedResumeRepository.findById(resumeId).ifPresent(resume -> {
+            resume.setStatus(GeneratedResume.GenerationStatus.FAILED);
+            generatedResumeRepository.save(resume);
+        });
+    }
+    
+    private void generatePdfResume(ResumeTemplate template, PortfolioData portfolioData, Path outputPath) throws IOException {
         String htmlContent = generateHtmlContent(template, portfolioData);
         
-        // Create storage directory
-        Path storageDir = Paths.get(resumeStoragePath);
-        Files.createDirectories(storageDir);
-        
-        String fileName = generatedResume.getFileName();
-        Path outputPath = storageDir.resolve(fileName);
-        
         try (OutputStream os = Files.newOutputStream(outputPath)) {
             PdfRendererBuilder builder = new PdfRendererBuilder();
             builder.withHtmlContent(htmlContent, baseUrl);
@@ -113,29 +154,20 @@ public class ResumeGeneratorService {
         }
         
         log.info("Generated PDF resume: {}", outputPath.toString());
-        return outputPath.toString();
     }
     
-    private String generateHtmlResume(GeneratedResume generatedResume, ResumeTemplate template, PortfolioData portfolioData) throws IOException {
+    private void generateHtmlResume(ResumeTemplate template, PortfolioData portfolioData, Path outputPath) throws IOException {
         String htmlContent = generateHtmlContent(template, portfolioData);
         
-        // Create storage directory
-        Path storageDir = Paths.get(resumeStoragePath);
-        Files.createDirectories(storageDir);
-        
-        String fileName = generatedResume.getFileName();
-        Path outputPath = storageDir.resolve(fileName);
-        
         Files.write(outputPath, htmlContent.getBytes());
         
         log.info("Generated HTML resume: {}", outputPath.toString());
-        return outputPath.toString();
     }
     
-    private String generateDocxResume(GeneratedResume generatedResume, ResumeTemplate template, PortfolioData portfolioData) throws IOException {
+    private void generateDocxResume(ResumeTemplate template, PortfolioData portfolioData, Path outputPath) throws IOException {
         // For DOCX generation, we would use Apache POI
         // For now, we'll generate HTML and convert later
-        return generateHtmlResume(generatedResume, template, portfolioData);
+        generateHtmlResume(template, portfolioData, outputPath);
     }
     
     private String generateHtmlContent(ResumeTemplate template, PortfolioData portfolioData) {
@@ -155,14 +187,8 @@ public class ResumeGeneratorService {
         context.setVariable("dateFormatter", DateTimeFormatter.ofPattern("MMM yyyy"));
         context.setVariable("fullDateFormatter", DateTimeFormatter.ofPattern("MMMM dd, yyyy"));
         
-        // Process the template
-        String templateContent = template.getHtmlTemplate();
-        if (templateContent == null || templateContent.trim().isEmpty()) {
-            templateContent = getDefaultTemplate();
-        }
-        
-        // Use Thymeleaf to process the template
-        return templateEngine.process("string:" + templateContent, context);
+        // Resolved by id and version so the parsed template is cached across generations
+        return templateEngine.process(StoredTemplateResolver.resumeTemplateName(template), context);
     }
     
     private String generateFileName(User user, ResumeTemplate template, GeneratedResume.FileFormat format) {
@@ -180,11 +206,16 @@ public class ResumeGeneratorService {
         return generatedResumeRepository.findByUserOrderByCreatedAtDesc(user);
     }
     
+    public GeneratedResume getResume(User user, String resumeId) {
+        return generatedResumeRepository.findByIdAndUser(resumeId, user)
+                .orElseThrow(() -> new RuntimeException("Resume not found"));
+    }
+    
     public List<GeneratedResume> getUserCompletedResumes(User user) {
         return generatedResumeRepository.findCompletedResumesByUser(user);
     }
     
-    public Resource downloadResume(User user, Long resumeId) throws IOException {
+    public ResumeDownload prepareDownload(User user, String resumeId) throws IOException {
         GeneratedResume resume = generatedResumeRepository.findByIdAndUser(resumeId, user)
                 .orElseThrow(() -> new RuntimeException("Resume not found"));
         
@@ -193,31 +224,71 @@ public class ResumeGeneratorService {
         }
         
         Path filePath = Paths.get(resume.getFilePath());
-        if (!Files.exists(filePath)) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
             throw new RuntimeException("Resume file not found");
         }
         
-        // Increment download count
-        resume.setDownloadCount(resume.getDownloadCount() + 1);
-        generatedResumeRepository.save(resume);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        // Content-addressed files never change in place, so the hash is a strong validator
+        String eTag = resume.getContentHash() != null
+                ? "\"" + resume.getContentHash() + "\""
+                : "\"" + attributes.size() + "-" + lastModified + "\"";
         
-        return new UrlResource(filePath.toUri());
+        return ResumeDownload.builder()
+                .resumeId(resume.getId())
+                .path(filePath)
+                .fileName(resume.getFileName())
+                .contentType(contentType(resume.getFormat()))
+                .length(attributes.size())
+                .lastModified(lastModified)
+                .eTag(eTag)
+                .build();
+    }
+    
+    public void recordDownload(String resumeId) {
+        // Single-field atomic increment, no read-modify-write of the document
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(resumeId)),
+                new Update().inc("downloadCount", 1),
+                GeneratedResume.class);
+    }
+    
+    private String contentType(GeneratedResume.FileFormat format) {
+        return switch (format) {
+            case PDF -> "application/pdf";
+            case HTML -> "text/html";
+            case DOCX -> "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+        };
     }
     
     public void deleteResume(User user, Long resumeId) {
         GeneratedResume resume = generatedResumeRepository.findByIdAndUser(resumeId, user)
                 .orElseThrow(() -> new RuntimeException("Resume not found"));
         
-        // Delete file
+        // Delete record, then drop its reference on the file
+        generatedResumeRepository.delete(resume);
+        releaseFile(resume);
+    }
+    
+    private void releaseFile(GeneratedResume resume) {
+        if (resume.getContentHash() != null) {
+            resumeBlobStore.release(resume.getContentHash());
+            return;
+        }
+        
+        // Stored before deduplication, the file belongs to this resume alone
+        if (resume.getFilePath() == null) {
+            return;
+        }
         try {
             Path filePath = Paths.get(resume.getFilePath());
             Files.deleteIfExists(filePath);
         } catch (IOException e) {
             log.warn("Could not delete resume file: {}", resume.getFilePath());
         }
-        
-        // Delete record
-        generatedResumeRepository.delete(resume);
     }
     
     public void cleanupExpiredResumes() {
@@ -225,9 +296,8 @@ public class ResumeGeneratorService {
         
         for (GeneratedResume resume : expiredResumes) {
             try {
-                Path filePath = Paths.get(resume.getFilePath());
-                Files.deleteIfExists(filePath);
                 generatedResumeRepository.delete(resume);
+                releaseFile(resume);
                 log.info("Cleaned up expired resume: {}", resume.getFileName());
             } catch (Exception e) {
                 log.error("Error cleaning up resume {}: {}", resume.getFileName(), e.getMessage());
@@ -235,8 +305,10 @@ public class ResumeGeneratorService {
         }
     }
     
-    private String getDefaultTemplate() {
-        return """
+    /**
+     * Used by {@link StoredTemplateResolver} for templates without stored markup.
+     */
+    public static final String DEFAULT_TEMPLATE = """
                 <!DOCTYPE html>
                 <html>
                 <head>
@@ -290,5 +362,4 @@ public class ResumeGeneratorService {
                 </body>
                 </html>
                 """;
-    }
 }
@@ -1,17 +1,30 @@
 package com.yourcompany.portfoliogenerator.service;
 
+import com.yourcompany.portfoliogenerator.model.UserStats;
 import com.yourcompany.portfoliogenerator.service.ResumeGeneratorService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ScheduledMaintenanceService {
     
+    private static final int RANK_BATCH_SIZE = 1000;
+    
     private final ResumeGeneratorService resumeGeneratorService;
+    private final LeaderboardIndex leaderboardIndex;
+    private final MongoTemplate mongoTemplate;
     
     // Run cleanup every day at 2 AM
     @Scheduled(cron = "0 0 2 * * ?")
@@ -28,7 +41,28 @@ public class ScheduledMaintenanceService {
     // Update leaderboard rankings every hour
     @Scheduled(fixedRate = 3600000) // 1 hour in milliseconds
     public void updateLeaderboardRankings() {
-        log.debug("Updating leaderboard rankings (placeholder for future implementation)");
-        // This would be implemented to update all user rankings efficiently
+        List<String> statsIds = new ArrayList<>(leaderboardIndex.size());
+        List<Integer> ranks = new ArrayList<>(leaderboardIndex.size());
+        leaderboardIndex.forEachRanked((statsId, rank) -> {
+            statsIds.add(statsId);
+            ranks.add(rank);
+        });
+        
+        try {
+            for (int from = 0; from < statsIds.size(); from += RANK_BATCH_SIZE) {
+                int to = Math.min(from + RANK_BATCH_SIZE, statsIds.size());
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserStats.class);
+                for (int i = from; i < to; i++) {
+                    // Skip documents whose stored rank is already right
+                    bulk.updateOne(
+                            Query.query(Criteria.where("_id").is(statsIds.get(i)).and("rankPosition").ne(ranks.get(i))),
+                            Update.update("rankPosition", ranks.get(i)));
+                }
+                bulk.execute();
+            }
+            log.info("Persisted leaderboard rankings for {} users", statsIds.size());
+        } catch (Exception e) {
+            log.error("Error persisting leaderboard rankings: {}", e.getMessage(), e);
+        }
     }
 }
@@ -0,0 +1,247 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.yourcompany.portfoliogenerator.model.User;
+import com.yourcompany.portfoliogenerator.model.UserStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind buffer for user stats. Each active user's stats live in memory and are changed
+ * there under a per-user lock, so level-ups and badge checks see every event in order. The
+ * changes are written back as counter increments in one bulk update per flush, on an interval,
+ * when too many users are dirty, and on shutdown.
+ */
+@Component
+@Slf4j
+public class UserStatsWriteBehind {
+
+    private final MongoTemplate mongoTemplate;
+    private final int maxDirty;
+
+    private final Map<String, PendingStats> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger dirtyCount = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public UserStatsWriteBehind(MongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+                                @Value("${app.gamification.write-behind.max-dirty:500}") int maxDirty) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxDirty = maxDirty;
+        Gauge.builder("gamification.stats.dirty", dirtyCount, AtomicInteger::get)
+                .description("Users with stats changes not yet written to Mongo")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Applies {@code change} to the user's live stats and returns a copy of the result.
+     * {@code loader} is only called when the user has no live stats yet, and never twice at
+     * once for the same user, so a first event cannot create a second stats document.
+     */
+    public UserStats update(User user, Supplier<UserStats> loader, Consumer<UserStats> change) {
+        UserStats result;
+        while (true) {
+            PendingStats entry = pending.computeIfAbsent(user.getId(), id -> new PendingStats(loader.get()));
+
+            synchronized (entry) {
+                if (entry.evicted) {
+                    // Flushed and dropped meanwhile, load the written state again
+                    continue;
+                }
+                entry.apply(change);
+                if (!entry.dirty) {
+                    entry.dirty = true;
+                    dirtyCount.incrementAndGet();
+                }
+                result = entry.live.toBuilder().build();
+            }
+            break;
+        }
+
+        if (dirtyCount.get() >= maxDirty && flushLock.tryLock()) {
+            try {
+                flush();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copy of the user's live stats, if they are held in memory.
+     */
+    public Optional<UserStats> current(String userId) {
+        PendingStats entry = pending.get(userId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        synchronized (entry) {
+            return entry.evicted ? Optional.empty() : Optional.of(entry.live.toBuilder().build());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.gamification.write-behind.flush-interval-ms:2000}")
+    public void scheduledFlush() {
+        flushLock.lock();
+        try {
+            flush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        scheduledFlush();
+        log.info("Flushed pending user stats on shutdown");
+    }
+
+    // Caller holds flushLock
+    private void flush() {
+        List<Drained> batch = new ArrayList<>();
+        for (Map.Entry<String, PendingStats> e : pending.entrySet()) {
+            PendingStats entry = e.getValue();
+            synchronized (entry) {
+                if (entry.dirty) {
+                    batch.add(entry.drain());
+                    dirtyCount.decrementAndGet();
+                } else if (!entry.evicted && ++entry.idleFlushes > 1) {
+                    // Unchanged for a whole interval, stop holding it
+                    entry.evicted = true;
+                    pending.remove(e.getKey(), entry);
+                }
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserStats.class);
+        for (Drained drained : batch) {
+            bulk.updateOne(Query.query(Criteria.where("_id").is(drained.statsId)), drained.update);
+        }
+        try {
+            bulk.execute();
+            log.debug("Flushed stats of {} users", batch.size());
+        } catch (BulkOperationException e) {
+            // The other updates were applied, restoring them would count their increments twice
+            log.error("Failed to flush stats of {} of {} users, will retry: {}",
+                    e.getErrors().size(), batch.size(), e.getMessage());
+            for (BulkWriteError error : e.getErrors()) {
+                restore(batch.get(error.getIndex()));
+            }
+        } catch (Exception e) {
+            log.error("Failed to flush stats of {} users, will retry: {}", batch.size(), e.getMessage(), e);
+            batch.forEach(this::restore);
+        }
+    }
+
+    private void restore(Drained drained) {
+        synchronized (drained.entry) {
+            drained.entry.restore(drained);
+            if (!drained.entry.dirty) {
+                drained.entry.dirty = true;
+                dirtyCount.incrementAndGet();
+            }
+        }
+    }
+
+    private static final class PendingStats {
+        private final UserStats live;
+        private boolean dirty;
+        private boolean evicted;
+        private int idleFlushes;
+
+        // Increments not yet written
+        private int points;
+        private int resumes;
+        private int portfolios;
+        private int badges;
+
+        private PendingStats(UserStats live) {
+            this.live = live;
+        }
+
+        private void apply(Consumer<UserStats> change) {
+            int pointsBefore = count(live.getTotalPoints());
+            int resumesBefore = count(live.getResumesGenerated());
+            int portfoliosBefore = count(live.getPortfoliosCreated());
+            int badgesBefore = count(live.getBadgesEarned());
+
+            change.accept(live);
+
+            points += count(live.getTotalPoints()) - pointsBefore;
+            resumes += count(live.getResumesGenerated()) - resumesBefore;
+            portfolios += count(live.getPortfoliosCreated()) - portfoliosBefore;
+            badges += count(live.getBadgesEarned()) - badgesBefore;
+            idleFlushes = 0;
+        }
+
+        private Drained drain() {
+            Update update = new Update()
+                    .inc("totalPoints", points)
+                    .inc("resumesGenerated", resumes)
+                    .inc("portfoliosCreated", portfolios)
+                    .inc("badgesEarned", badges)
+                    .max("level", live.getLevel())
+                    .max("longestStreak", live.getLongestStreak())
+                    .set("experiencePoints", live.getExperiencePoints())
+                    .set("pointsToNextLevel", live.getPointsToNextLevel())
+                    .set("currentStreak", live.getCurrentStreak())
+                    .set("socialAccountsConnected", live.getSocialAccountsConnected())
+                    .set("profileCompletionPercentage", live.getProfileCompletionPercentage())
+                    .set("updatedAt", LocalDateTime.now());
+            if (live.getLastActivityDate() != null) {
+                update.max("lastActivityDate", live.getLastActivityDate());
+            }
+            if (live.getRankPosition() != null) {
+                update.set("rankPosition", live.getRankPosition());
+            }
+
+            Drained drained = new Drained(this, live.getId(), update, points, resumes, portfolios, badges);
+            points = 0;
+            resumes = 0;
+            portfolios = 0;
+            badges = 0;
+            dirty = false;
+            return drained;
+        }
+
+        private void restore(Drained drained) {
+            points += drained.points;
+            resumes += drained.resumes;
+            portfolios += drained.portfolios;
+            badges += drained.badges;
+        }
+    }
+
+    private static int count(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    private record Drained(PendingStats entry, String statsId, Update update,
+                           int points, int resumes, int portfolios, int badges) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.yourcompany.portfoliogenerator.template;
+
+import com.yourcompany.portfoliogenerator.model.UserTemplate;
+import com.yourcompany.portfoliogenerator.repository.UserTemplateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process map from deployment URL to user template id, so public portfolio
+ * renders resolve with a single keyed lookup instead of scanning user_templates.
+ * Warmed at startup and kept in sync by {@link UserTemplateService} on deploy/undeploy.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeployedTemplateIndex {
+
+    private final UserTemplateRepository userTemplateRepository;
+
+    private final Map<String, String> idsByUrl = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            List<UserTemplate> deployed = userTemplateRepository.findDeploymentUrls();
+            for (UserTemplate userTemplate : deployed) {
+                if (userTemplate.getDeploymentUrl() != null) {
+                    idsByUrl.put(userTemplate.getDeploymentUrl(), userTemplate.getId());
+                }
+            }
+            log.info("Deployment URL index warmed with {} entries", idsByUrl.size());
+        } catch (Exception e) {
+            log.error("Failed to warm deployment URL index: {}", e.getMessage(), e);
+        }
+    }
+
+    public String resolve(String deploymentUrl) {
+        return idsByUrl.get(deploymentUrl);
+    }
+
+    public void register(String deploymentUrl, String userTemplateId) {
+        if (deploymentUrl != null && userTemplateId != null) {
+            idsByUrl.put(deploymentUrl, userTemplateId);
+        }
+    }
+
+    public void unregister(String deploymentUrl) {
+        if (deploymentUrl != null) {
+            idsByUrl.remove(deploymentUrl);
+        }
+    }
+}
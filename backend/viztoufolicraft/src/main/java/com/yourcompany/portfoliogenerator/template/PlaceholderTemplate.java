@@ -0,0 +1,95 @@
+package com.yourcompany.portfoliogenerator.template;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A {@code {{key}}} template parsed once into alternating literal and placeholder segments.
+ * Rendering is a single pass that appends each segment to one output, instead of one
+ * full-document {@code String.replace} per variable. Placeholders without a value are
+ * left in the output as written.
+ */
+public final class PlaceholderTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final int ESTIMATED_VALUE_LENGTH = 32;
+
+    // literals.length == keys.length + 1; literal i precedes key i
+    private final String[] literals;
+    private final String[] keys;
+    private final int literalLength;
+
+    private PlaceholderTemplate(String[] literals, String[] keys, int literalLength) {
+        this.literals = literals;
+        this.keys = keys;
+        this.literalLength = literalLength;
+    }
+
+    public static PlaceholderTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        int literalLength = 0;
+
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                break;
+            }
+            // For "{{a {{b}}" only the innermost pair is a placeholder
+            open = source.lastIndexOf(OPEN, close - OPEN.length());
+
+            String literal = source.substring(position, open);
+            literals.add(literal);
+            literalLength += literal.length();
+            keys.add(source.substring(open + OPEN.length(), close));
+            position = close + CLOSE.length();
+        }
+
+        String tail = source.substring(position);
+        literals.add(tail);
+        literalLength += tail.length();
+
+        return new PlaceholderTemplate(literals.toArray(new String[0]), keys.toArray(new String[0]), literalLength);
+    }
+
+    public boolean hasPlaceholders() {
+        return keys.length > 0;
+    }
+
+    public int estimateLength() {
+        return literalLength + keys.length * ESTIMATED_VALUE_LENGTH;
+    }
+
+    public String render(Function<String, ?> values) {
+        StringBuilder out = new StringBuilder(estimateLength());
+        try {
+            renderTo(values, out);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    public void renderTo(Function<String, ?> values, Appendable out) throws IOException {
+        for (int i = 0; i < keys.length; i++) {
+            out.append(literals[i]);
+            Object value = values.apply(keys[i]);
+            if (value != null) {
+                out.append(value.toString());
+            } else {
+                out.append(OPEN).append(keys[i]).append(CLOSE);
+            }
+        }
+        out.append(literals[keys.length]);
+    }
+}
@@ -0,0 +1,43 @@
+package com.yourcompany.portfoliogenerator.template;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU of compiled {@link PlaceholderTemplate}s. Keys carry the template version
+ * (for example {@code portfolio/<id>@<updatedAt>}), so an edited template compiles under a
+ * new key and the old entry simply ages out.
+ */
+@Component
+public class PlaceholderTemplateCache {
+
+    private final Map<String, PlaceholderTemplate> entries;
+
+    public PlaceholderTemplateCache(@Value("${app.template.placeholder-cache.max-entries:512}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PlaceholderTemplate> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public PlaceholderTemplate get(String key, String source) {
+        synchronized (entries) {
+            PlaceholderTemplate compiled = entries.get(key);
+            if (compiled != null) {
+                return compiled;
+            }
+        }
+
+        // Compile outside the lock; a concurrent duplicate compile is harmless
+        PlaceholderTemplate compiled = PlaceholderTemplate.compile(source);
+        synchronized (entries) {
+            entries.put(key, compiled);
+        }
+        return compiled;
+    }
+}
@@ -0,0 +1,158 @@
+package com.yourcompany.portfoliogenerator.template;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded LRU cache of fully rendered public portfolio pages, keyed by user template id
+ * and tagged with the template's updatedAt and the owner name the page shows. Eviction is by
+ * total body size, not entry count. Invalidation leaves a floor behind, so a render of an
+ * older version that finishes after the invalidation is served but never cached.
+ */
+@Component
+@Slf4j
+public class RenderedPortfolioCache {
+
+    @Value("${app.portfolio.render-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    // Floors outlive their entries; only recently invalidated ids need one
+    private static final int MAX_FLOORS = 10000;
+
+    private final LinkedHashMap<String, RenderedPortfolio> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, LocalDateTime> floors = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, LocalDateTime> eldest) {
+            return size() > MAX_FLOORS;
+        }
+    };
+    private long totalBytes;
+
+    public synchronized RenderedPortfolio get(String userTemplateId) {
+        return entries.get(userTemplateId);
+    }
+
+    public synchronized RenderedPortfolio get(String userTemplateId, LocalDateTime updatedAt, String ownerName) {
+        RenderedPortfolio page = entries.get(userTemplateId);
+        return page != null && Objects.equals(page.getUpdatedAt(), updatedAt)
+                && Objects.equals(page.getOwnerName(), ownerName) ? page : null;
+    }
+
+    public RenderedPortfolio put(String userTemplateId, LocalDateTime updatedAt, String ownerName, String html) {
+        byte[] body = html.getBytes(StandardCharsets.UTF_8);
+        RenderedPortfolio page = new RenderedPortfolio(userTemplateId, updatedAt, ownerName, body, computeETag(body),
+                toEpochMillis(updatedAt));
+
+        if (body.length > maxBytes) {
+            // Too large to cache, still serve it
+            return page;
+        }
+
+        synchronized (this) {
+            LocalDateTime floor = floors.get(userTemplateId);
+            if (floor != null && (updatedAt == null || updatedAt.isBefore(floor))) {
+                // Rendered from a version read before the last invalidation
+                return page;
+            }
+            floors.remove(userTemplateId);
+
+            RenderedPortfolio existing = entries.get(userTemplateId);
+            if (existing != null && isNewer(existing.getUpdatedAt(), updatedAt)) {
+                // A newer render landed while this one was being built
+                return existing;
+            }
+            if (existing != null) {
+                remove(userTemplateId);
+            }
+            entries.put(userTemplateId, page);
+            totalBytes += body.length;
+            evictToFit();
+        }
+        return page;
+    }
+
+    /**
+     * Drops the cached page and refuses renders of versions older than {@code notBefore}.
+     */
+    public synchronized void invalidate(String userTemplateId, LocalDateTime notBefore) {
+        if (userTemplateId != null) {
+            remove(userTemplateId);
+            floors.merge(userTemplateId, notBefore, (current, candidate) -> candidate.isAfter(current) ? candidate : current);
+        }
+    }
+
+    private void remove(String userTemplateId) {
+        RenderedPortfolio removed = entries.remove(userTemplateId);
+        if (removed != null) {
+            totalBytes -= removed.getBody().length;
+        }
+    }
+
+    private void evictToFit() {
+        Iterator<Map.Entry<String, RenderedPortfolio>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            RenderedPortfolio evicted = iterator.next().getValue();
+            iterator.remove();
+            totalBytes -= evicted.getBody().length;
+            log.debug("Evicted rendered portfolio {} from cache", evicted.getUserTemplateId());
+        }
+    }
+
+    private boolean isNewer(LocalDateTime cached, LocalDateTime candidate) {
+        return cached != null && (candidate == null || cached.isAfter(candidate));
+    }
+
+    private long toEpochMillis(LocalDateTime updatedAt) {
+        return updatedAt != null
+                ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+    }
+
+    private String computeETag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class RenderedPortfolio {
+        private final String userTemplateId;
+        private final LocalDateTime updatedAt;
+        private final String ownerName;
+        private final byte[] body;
+        private final String eTag;
+        private final long lastModified;
+
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || tag.equals(eTag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.yourcompany.portfoliogenerator.template;
+
+import com.yourcompany.portfoliogenerator.model.PortfolioTemplate;
+import com.yourcompany.portfoliogenerator.model.ResumeTemplate;
+import com.yourcompany.portfoliogenerator.repository.PortfolioTemplateRepository;
+import com.yourcompany.portfoliogenerator.repository.ResumeTemplateRepository;
+import com.yourcompany.portfoliogenerator.service.ResumeGeneratorService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.IEngineConfiguration;
+import org.thymeleaf.exceptions.TemplateInputException;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.AbstractConfigurableTemplateResolver;
+import org.thymeleaf.templateresource.ITemplateResource;
+import org.thymeleaf.templateresource.StringTemplateResource;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+/**
+ * Resolves Thymeleaf templates stored in Mongo by name, so the engine's parsed-template cache
+ * can hold them. Names are {@code portfolio/<id>@<version>} and {@code resume/<id>@<version>},
+ * where the version is the template's updatedAt; an edited template therefore gets a new cache
+ * key, and the old entry is evicted by whoever saved the change.
+ */
+@Component
+@Slf4j
+public class StoredTemplateResolver extends AbstractConfigurableTemplateResolver {
+
+    private static final String PORTFOLIO_PREFIX = "portfolio/";
+    private static final String RESUME_PREFIX = "resume/";
+
+    private final PortfolioTemplateRepository portfolioTemplateRepository;
+    private final ResumeTemplateRepository resumeTemplateRepository;
+
+    public StoredTemplateResolver(PortfolioTemplateRepository portfolioTemplateRepository,
+                                  ResumeTemplateRepository resumeTemplateRepository) {
+        this.portfolioTemplateRepository = portfolioTemplateRepository;
+        this.resumeTemplateRepository = resumeTemplateRepository;
+
+        setName("stored-templates");
+        // Ahead of the classpath resolver Spring Boot registers
+        setOrder(1);
+        setTemplateMode(TemplateMode.HTML);
+        getResolvablePatternSpec().addPattern(PORTFOLIO_PREFIX + "*");
+        getResolvablePatternSpec().addPattern(RESUME_PREFIX + "*");
+        setCacheable(true);
+        setCacheTTLMs(null);
+    }
+
+    public static String portfolioTemplateName(PortfolioTemplate template) {
+        return PORTFOLIO_PREFIX + template.getId() + "@" + version(template.getUpdatedAt());
+    }
+
+    public static String resumeTemplateName(ResumeTemplate template) {
+        return RESUME_PREFIX + template.getId() + "@" + version(template.getUpdatedAt());
+    }
+
+    @Override
+    protected ITemplateResource computeTemplateResource(IEngineConfiguration configuration, String ownerTemplate,
+                                                        String template, String resourceName, String characterEncoding,
+                                                        Map<String, Object> templateResolutionAttributes) {
+        int versionSeparator = template.lastIndexOf('@');
+        if (versionSeparator < 0) {
+            throw new TemplateInputException("Stored template name has no version: " + template);
+        }
+
+        log.debug("Loading stored template {} for parsing", template);
+        if (template.startsWith(PORTFOLIO_PREFIX)) {
+            String id = template.substring(PORTFOLIO_PREFIX.length(), versionSeparator);
+            String content = portfolioTemplateRepository.findById(id)
+                    .map(PortfolioTemplate::getHtmlContent)
+                    .orElseThrow(() -> new TemplateInputException("Portfolio template not found: " + id));
+            return new StringTemplateResource(content);
+        }
+
+        String id = template.substring(RESUME_PREFIX.length(), versionSeparator);
+        String content = resumeTemplateRepository.findById(id)
+                .map(ResumeTemplate::getHtmlTemplate)
+                .filter(html -> !html.trim().isEmpty())
+                .orElse(ResumeGeneratorService.DEFAULT_TEMPLATE);
+        return new StringTemplateResource(content);
+    }
+
+    private static String version(LocalDateTime updatedAt) {
+        return updatedAt != null
+                ? Long.toString(updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                : "0";
+    }
+}
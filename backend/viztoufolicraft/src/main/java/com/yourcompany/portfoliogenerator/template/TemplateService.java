@@ -5,7 +5,9 @@ import com.yourcompany.portfoliogenerator.model.User;
 import com.yourcompany.portfoliogenerator.repository.PortfolioTemplateRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.thymeleaf.TemplateEngine;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -15,6 +17,7 @@ import java.util.stream.Collectors;
 public class TemplateService {
     
     private final PortfolioTemplateRepository templateRepository;
+    private final TemplateEngine templateEngine;
     
     public List<TemplateResponse> getAllActiveTemplates() {
         return templateRepository.findByActiveTrue()
@@ -75,6 +78,7 @@ public class TemplateService {
         return templateRepository.findById(id)
                 .filter(template -> template.getCreatedBy().getId().equals(user.getId()) || isAdmin(user))
                 .map(template -> {
+                    String previousTemplateName = StoredTemplateResolver.portfolioTemplateName(template);
                     template.setName(request.getName());
                     template.setDescription(request.getDescription());
                     template.setTemplateType(request.getTemplateType());
@@ -84,8 +88,10 @@ public class TemplateService {
                     template.setJsonConfig(request.getJsonConfig());
                     template.setPreviewImageUrl(request.getPreviewImageUrl());
                     template.setFeatured(request.isFeatured());
+                    template.setUpdatedAt(LocalDateTime.now());
                     
                     PortfolioTemplate savedTemplate = templateRepository.save(template);
+                    templateEngine.clearTemplateCacheFor(previousTemplateName);
                     return TemplateResponse.fromTemplate(savedTemplate);
                 });
     }
@@ -8,6 +8,7 @@ import com.yourcompany.portfoliogenerator.repository.UserTemplateRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,6 +20,8 @@ public class UserTemplateService {
     
     private final UserTemplateRepository userTemplateRepository;
     private final PortfolioTemplateRepository templateRepository;
+    private final DeployedTemplateIndex deployedTemplateIndex;
+    private final RenderedPortfolioCache renderedPortfolioCache;
     
     public List<UserTemplateResponse> getUserTemplates(User user) {
         return userTemplateRepository.findByUser(user)
@@ -54,6 +57,7 @@ public class UserTemplateService {
                     userTemplate.setCustomizedCss(template.getCssContent());
                     userTemplate.setCustomizedJs(template.getJsContent());
                     userTemplate.setUserData(template.getJsonConfig()); // Default config
+                    userTemplate.onCreate();
                     
                     UserTemplate savedUserTemplate = userTemplateRepository.save(userTemplate);
                     return UserTemplateResponse.fromUserTemplate(savedUserTemplate);
@@ -70,8 +74,10 @@ public class UserTemplateService {
                     userTemplate.setCustomizedCss(request.getCustomizedCss());
                     userTemplate.setCustomizedJs(request.getCustomizedJs());
                     userTemplate.setUserData(request.getUserData());
+                    userTemplate.onUpdate();
                     
                     UserTemplate savedUserTemplate = userTemplateRepository.save(userTemplate);
+                    renderedPortfolioCache.invalidate(savedUserTemplate.getId(), savedUserTemplate.getUpdatedAt());
                     return UserTemplateResponse.fromUserTemplate(savedUserTemplate);
                 });
     }
@@ -83,10 +89,16 @@ public class UserTemplateService {
                     // Generate a unique deployment URL
                     String deploymentUrl = generateDeploymentUrl(user.getUsername(), userTemplate.getId());
                     
+                    String previousUrl = userTemplate.getDeploymentUrl();
+                    
                     userTemplate.setDeployed(true);
                     userTemplate.setDeploymentUrl(deploymentUrl);
+                    userTemplate.onUpdate();
                     
                     UserTemplate savedUserTemplate = userTemplateRepository.save(userTemplate);
+                    renderedPortfolioCache.invalidate(savedUserTemplate.getId(), savedUserTemplate.getUpdatedAt());
+                    deployedTemplateIndex.unregister(previousUrl);
+                    deployedTemplateIndex.register(deploymentUrl, savedUserTemplate.getId());
                     return UserTemplateResponse.fromUserTemplate(savedUserTemplate);
                 });
     }
@@ -95,10 +107,15 @@ public class UserTemplateService {
         return userTemplateRepository.findById(userTemplateId)
                 .filter(userTemplate -> userTemplate.getUser().getId().equals(user.getId()))
                 .map(userTemplate -> {
+                    String previousUrl = userTemplate.getDeploymentUrl();
+                    
                     userTemplate.setDeployed(false);
                     userTemplate.setDeploymentUrl(null);
+                    userTemplate.onUpdate();
                     
                     UserTemplate savedUserTemplate = userTemplateRepository.save(userTemplate);
+                    renderedPortfolioCache.invalidate(savedUserTemplate.getId(), savedUserTemplate.getUpdatedAt());
+                    deployedTemplateIndex.unregister(previousUrl);
                     return UserTemplateResponse.fromUserTemplate(savedUserTemplate);
                 });
     }
@@ -108,6 +125,9 @@ public class UserTemplateService {
                 .filter(userTemplate -> userTemplate.getUser().getId().equals(user.getId()))
                 .map(userTemplate -> {
                     userTemplateRepository.delete(userTemplate);
+                    // Nothing rendered before the delete may come back
+                    renderedPortfolioCache.invalidate(userTemplate.getId(), LocalDateTime.now());
+                    deployedTemplateIndex.unregister(userTemplate.getDeploymentUrl());
                     return true;
                 })
                 .orElse(false);
@@ -120,11 +140,21 @@ public class UserTemplateService {
     }
     
     public Optional<UserTemplate> getDeployedTemplateByUrl(String deploymentUrl) {
-        return userTemplateRepository.findAll()
-                .stream()
-                .filter(userTemplate -> userTemplate.isDeployed() && 
-                                       deploymentUrl.equals(userTemplate.getDeploymentUrl()))
-                .findFirst();
+        String userTemplateId = deployedTemplateIndex.resolve(deploymentUrl);
+        if (userTemplateId != null) {
+            Optional<UserTemplate> indexed = userTemplateRepository.findById(userTemplateId)
+                    .filter(userTemplate -> userTemplate.isDeployed() &&
+                                           deploymentUrl.equals(userTemplate.getDeploymentUrl()));
+            if (indexed.isPresent()) {
+                return indexed;
+            }
+            // Stale entry (e.g. changed by another instance), fall through to the indexed query
+            deployedTemplateIndex.unregister(deploymentUrl);
+        }
+        
+        Optional<UserTemplate> userTemplate = userTemplateRepository.findByDeploymentUrlAndDeployedTrue(deploymentUrl);
+        userTemplate.ifPresent(found -> deployedTemplateIndex.register(deploymentUrl, found.getId()));
+        return userTemplate;
     }
     
     private String generateDeploymentUrl(String username, Long templateId) {
@@ -0,0 +1,102 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.yourcompany.portfoliogenerator.model.ActivityLog;
+import com.yourcompany.portfoliogenerator.model.User;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdminServiceTests {
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@InjectMocks
+	private AdminService adminService;
+
+	@Test
+	void exportActivitiesCsvResolvesTheUserOfASavedActivity() {
+		ObjectId userId = new ObjectId();
+		User user = new User();
+		user.setId(userId.toHexString());
+		ActivityLog activity = ActivityLog.builder()
+				.user(user)
+				.action("LOGIN")
+				.type(ActivityLog.ActivityType.LOGIN)
+				.timestamp(LocalDateTime.now())
+				.build();
+
+		when(mongoTemplate.getCollectionName(ActivityLog.class)).thenReturn("activity_logs");
+		when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+		when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("activity_logs")))
+				.thenReturn(Stream.of(readBack(saved(activity))));
+		when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("users")))
+				.thenReturn(List.of(new Document("_id", userId).append("email", "ada@example.com")));
+
+		StringWriter csv = new StringWriter();
+		adminService.exportActivitiesCsv(LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), csv);
+
+		assertThat(csv.toString()).contains(",ada@example.com,LOGIN,LOGIN,");
+	}
+
+	@Test
+	void exportActivitiesCsvLooksUpTheUsersOfABatchInOneQuery() {
+		ObjectId userId = new ObjectId();
+		User user = new User();
+		user.setId(userId.toHexString());
+		Document first = readBack(saved(ActivityLog.builder().user(user).action("LOGIN")
+				.type(ActivityLog.ActivityType.LOGIN).timestamp(LocalDateTime.now()).build()));
+		Document second = readBack(saved(ActivityLog.builder().user(user).action("LOGOUT")
+				.type(ActivityLog.ActivityType.LOGOUT).timestamp(LocalDateTime.now()).build()));
+
+		when(mongoTemplate.getCollectionName(ActivityLog.class)).thenReturn("activity_logs");
+		when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+		when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("activity_logs")))
+				.thenReturn(Stream.of(first, second));
+		when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("users")))
+				.thenReturn(List.of(new Document("_id", userId).append("email", "ada@example.com")));
+
+		StringWriter csv = new StringWriter();
+		adminService.exportActivitiesCsv(LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), csv);
+
+		assertThat(csv.toString()).contains(",ada@example.com,LOGIN,LOGIN,", ",ada@example.com,LOGOUT,LOGOUT,");
+		verify(mongoTemplate, times(1)).find(any(Query.class), eq(Document.class), eq("users"));
+	}
+
+	// The document save() writes for the entity, user reference included
+	private static Document saved(Object entity) {
+		MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+		converter.afterPropertiesSet();
+		Document document = new Document();
+		converter.write(entity, document);
+		return document;
+	}
+
+	// As a raw read returns it, with the DBRef decoded as a plain {$ref, $id} document
+	private static Document readBack(Document stored) {
+		return Document.parse(stored.toJson());
+	}
+
+}
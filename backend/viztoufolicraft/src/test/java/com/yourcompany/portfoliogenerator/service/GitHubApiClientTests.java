@@ -0,0 +1,200 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.yourcompany.portfoliogenerator.config.GitHubClientConfig;
+import com.yourcompany.portfoliogenerator.config.IntegrationConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GitHubApiClientTests {
+
+	private static final Duration BLOCK = Duration.ofSeconds(10);
+
+	private static final String REPOSITORY = """
+			{"name": "Hello-World", "full_name": "octocat/Hello-World", "stargazers_count": 2834}
+			""";
+
+	private final MockWebServer server = new MockWebServer();
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private ConnectionProvider connectionProvider;
+
+	private GitHubApiClient client;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server.start();
+
+		IntegrationConfig integrationConfig = new IntegrationConfig();
+		IntegrationConfig.GitHub github = integrationConfig.getGithub();
+		github.setApiUrl(server.url("").toString().replaceAll("/$", ""));
+		github.setToken("test-token");
+		github.setTimeout(500);
+		github.setRetryAttempts(2);
+
+		GitHubClientConfig clientConfig = new GitHubClientConfig();
+		GitHubRateLimitScheduler scheduler = new GitHubRateLimitScheduler(integrationConfig, meterRegistry);
+		connectionProvider = clientConfig.gitHubConnectionProvider(integrationConfig);
+		WebClient webClient = clientConfig.gitHubWebClient(WebClient.builder(), integrationConfig, connectionProvider,
+				scheduler);
+		client = new GitHubApiClient(webClient, scheduler, integrationConfig, meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		connectionProvider.dispose();
+		server.shutdown();
+	}
+
+	@Test
+	void sendsTheRememberedETagAndServesA304FromMemory() throws InterruptedException {
+		server.enqueue(json(REPOSITORY).setHeader("ETag", "\"v1\""));
+		server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+
+		GitHubApiRepository first = client.get(GitHubApiRepository.class, "/repos/{owner}/{repo}", "octocat", "Hello-World")
+				.block(BLOCK);
+		GitHubApiRepository second = client.get(GitHubApiRepository.class, "/repos/{owner}/{repo}", "octocat", "Hello-World")
+				.block(BLOCK);
+
+		assertThat(first.fullName()).isEqualTo("octocat/Hello-World");
+		assertThat(second).isSameAs(first);
+		assertThat(server.takeRequest().getHeader("If-None-Match")).isNull();
+		assertThat(server.takeRequest().getHeader("If-None-Match")).isEqualTo("\"v1\"");
+		assertThat(meterRegistry.counter("github.api.responses", "result", "not_modified").count()).isEqualTo(1);
+	}
+
+	@Test
+	void doesNotSendAnETagAfterTheUriWasEvicted() throws InterruptedException {
+		server.enqueue(json(REPOSITORY).setHeader("ETag", "\"v1\""));
+		server.enqueue(json(REPOSITORY).setHeader("ETag", "\"v2\""));
+
+		client.get(GitHubApiRepository.class, "/repos/octocat/Hello-World").block(BLOCK);
+		client.evict("/repos/octocat/Hello-World");
+		client.get(GitHubApiRepository.class, "/repos/octocat/Hello-World").block(BLOCK);
+
+		server.takeRequest();
+		assertThat(server.takeRequest().getHeader("If-None-Match")).isNull();
+	}
+
+	@Test
+	void servesAnUnchangedPageAsItsLinksWithoutABody() throws InterruptedException {
+		String link = "<" + server.url("/users/octocat/repos?per_page=100&page=2") + ">; rel=\"next\", "
+				+ "<" + server.url("/users/octocat/repos?per_page=100&page=7") + ">; rel=\"last\"";
+		server.enqueue(json("[" + REPOSITORY + "]").setHeader("ETag", "\"p1\"").setHeader("Link", link));
+		server.enqueue(new MockResponse().setResponseCode(304));
+
+		GitHubApiClient.Page<Integer> first = client.getPage(body -> body.readAllBytes().length, true,
+				"/users/{username}/repos?per_page=100&page=1", "octocat").block(BLOCK);
+		client.rememberPages(List.of(first));
+		GitHubApiClient.Page<Integer> second = client.getPage(body -> body.readAllBytes().length, true,
+				"/users/{username}/repos?per_page=100&page=1", "octocat").block(BLOCK);
+
+		assertThat(first.modified()).isTrue();
+		assertThat(first.body()).isPositive();
+		assertThat(first.hasNext()).isTrue();
+		assertThat(first.lastPage()).isEqualTo(7);
+		assertThat(first.etag()).isEqualTo("\"p1\"");
+		assertThat(second.modified()).isFalse();
+		assertThat(second.body()).isNull();
+		assertThat(second.hasNext()).isTrue();
+		assertThat(second.lastPage()).isEqualTo(7);
+		server.takeRequest();
+		assertThat(server.takeRequest().getHeader("If-None-Match")).isEqualTo("\"p1\"");
+	}
+
+	@Test
+	void sendsNoPageETagUntilThePageIsRemembered() throws InterruptedException {
+		server.enqueue(json("[]").setHeader("ETag", "\"p1\""));
+		server.enqueue(json("[]").setHeader("ETag", "\"p1\""));
+
+		client.getPage(body -> body.readAllBytes().length, true, "/users/octocat/repos?page=1").block(BLOCK);
+		GitHubApiClient.Page<Integer> page = client.getPage(body -> body.readAllBytes().length, true,
+				"/users/octocat/repos?page=1").block(BLOCK);
+
+		assertThat(page.modified()).isTrue();
+		server.takeRequest();
+		assertThat(server.takeRequest().getHeader("If-None-Match")).isNull();
+	}
+
+	@Test
+	void readsAPageUnconditionallyWhenAsked() throws InterruptedException {
+		server.enqueue(json("[]").setHeader("ETag", "\"p1\""));
+		server.enqueue(json("[]").setHeader("ETag", "\"p1\""));
+
+		client.rememberPages(List.of(client.getPage(body -> body.readAllBytes().length, true,
+				"/users/octocat/repos?page=1").block(BLOCK)));
+		GitHubApiClient.Page<Integer> page = client.getPage(body -> body.readAllBytes().length, false,
+				"/users/octocat/repos?page=1").block(BLOCK);
+
+		assertThat(page.modified()).isTrue();
+		server.takeRequest();
+		assertThat(server.takeRequest().getHeader("If-None-Match")).isNull();
+	}
+
+	@Test
+	void retriesAServerError() {
+		server.enqueue(new MockResponse().setResponseCode(503));
+		server.enqueue(json(REPOSITORY));
+
+		GitHubApiRepository repository = client.get(GitHubApiRepository.class, "/repos/octocat/Hello-World").block(BLOCK);
+
+		assertThat(repository.name()).isEqualTo("Hello-World");
+		assertThat(server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	void retriesATimeout() {
+		server.enqueue(json(REPOSITORY).setHeadersDelay(2, TimeUnit.SECONDS));
+		server.enqueue(json(REPOSITORY));
+
+		GitHubApiRepository repository = client.get(GitHubApiRepository.class, "/repos/octocat/Hello-World").block(BLOCK);
+
+		assertThat(repository.name()).isEqualTo("Hello-World");
+		assertThat(server.getRequestCount()).isEqualTo(2);
+	}
+
+	@Test
+	void surfacesTheLastServerErrorOnceRetriesRunOut() {
+		for (int i = 0; i < 3; i++) {
+			server.enqueue(new MockResponse().setResponseCode(502));
+		}
+
+		assertThatThrownBy(() -> client.get(GitHubApiRepository.class, "/repos/octocat/Hello-World").block(BLOCK))
+				.isInstanceOf(WebClientResponseException.BadGateway.class);
+		assertThat(server.getRequestCount()).isEqualTo(3);
+	}
+
+	@Test
+	void doesNotRetryAClientError() throws InterruptedException {
+		server.enqueue(new MockResponse().setResponseCode(404));
+		server.enqueue(json(REPOSITORY));
+
+		assertThatThrownBy(() -> client.get(GitHubApiRepository.class, "/repos/octocat/missing").block(BLOCK))
+				.isInstanceOf(WebClientResponseException.NotFound.class);
+		assertThat(server.getRequestCount()).isEqualTo(1);
+		RecordedRequest request = server.takeRequest();
+		assertThat(request.getHeader("Authorization")).isEqualTo("Bearer test-token");
+	}
+
+	private static MockResponse json(String body) {
+		return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+	}
+
+}
@@ -0,0 +1,188 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.yourcompany.portfoliogenerator.config.GitHubClientConfig;
+import com.yourcompany.portfoliogenerator.config.IntegrationConfig;
+import com.yourcompany.portfoliogenerator.service.GitHubRateLimitScheduler.Priority;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GitHubRateLimitSchedulerTests {
+
+	private static final Duration BLOCK = Duration.ofSeconds(10);
+
+	private final MockWebServer server = new MockWebServer();
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final GitHubClientConfig clientConfig = new GitHubClientConfig();
+
+	private final IntegrationConfig integrationConfig = new IntegrationConfig();
+
+	private ConnectionProvider connectionProvider;
+
+	private GitHubRateLimitScheduler scheduler;
+
+	private WebClient webClient;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server.start();
+
+		IntegrationConfig.GitHub github = integrationConfig.getGithub();
+		github.setApiUrl(server.url("").toString().replaceAll("/$", ""));
+		github.setToken("test-token");
+		github.setRateLimitReserve(5);
+		github.setRateLimitMaxWait(5000);
+		github.setRateLimitBackgroundMaxWait(5000);
+		connectionProvider = clientConfig.gitHubConnectionProvider(integrationConfig);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		connectionProvider.dispose();
+		server.shutdown();
+	}
+
+	@Test
+	void tracksTheBudgetFromTheRateLimitHeaders() {
+		start();
+		long reset = Instant.now().plusSeconds(3600).getEpochSecond();
+
+		call(rateLimited(200, 5000, 42, reset));
+		assertThat(remaining()).isEqualTo(42);
+
+		call(rateLimited(200, 5000, 40, reset));
+		assertThat(remaining()).isEqualTo(40);
+	}
+
+	@Test
+	void neverHandsBackTokensForAResponseThatArrivesLate() {
+		start();
+		long reset = Instant.now().plusSeconds(3600).getEpochSecond();
+
+		call(rateLimited(200, 5000, 40, reset));
+		// Sent before the previous call was counted, answered after it
+		call(rateLimited(200, 5000, 45, reset));
+
+		assertThat(remaining()).isEqualTo(39);
+	}
+
+	@Test
+	void refundsACallAnswered304() {
+		start();
+		long reset = Instant.now().plusSeconds(3600).getEpochSecond();
+
+		call(rateLimited(200, 5000, 10, reset));
+		call(rateLimited(304, 5000, 10, reset));
+
+		assertThat(remaining()).isEqualTo(10);
+	}
+
+	@Test
+	void servesWaitingInteractiveCallsBeforeBackgroundOnes() {
+		start();
+		call(rateLimited(200, 20, 0, Instant.now().plusSeconds(1).getEpochSecond()));
+
+		List<Priority> order = new CopyOnWriteArrayList<>();
+		Mono<Void> background = scheduler.acquire(Priority.BACKGROUND)
+				.doOnSuccess(ignored -> order.add(Priority.BACKGROUND));
+		Mono<Void> interactive = scheduler.acquire(Priority.INTERACTIVE)
+				.doOnSuccess(ignored -> order.add(Priority.INTERACTIVE));
+		// The background call is queued first
+		Mono.when(background, interactive).block(BLOCK);
+
+		assertThat(order).containsExactly(Priority.INTERACTIVE, Priority.BACKGROUND);
+	}
+
+	@Test
+	void holdsTheReserveBackFromBackgroundCalls() {
+		integrationConfig.getGithub().setRateLimitBackgroundMaxWait(200);
+		start();
+		call(rateLimited(200, 5000, 5, Instant.now().plusSeconds(3600).getEpochSecond()));
+
+		assertThatThrownBy(() -> scheduler.acquire(Priority.BACKGROUND).block(BLOCK))
+				.isInstanceOf(IllegalStateException.class);
+		scheduler.acquire(Priority.INTERACTIVE).block(BLOCK);
+		assertThat(remaining()).isEqualTo(4);
+	}
+
+	@Test
+	void keepsTheReserveToHalfASmallWindow() {
+		integrationConfig.getGithub().setRateLimitReserve(100);
+		integrationConfig.getGithub().setRateLimitBackgroundMaxWait(200);
+		start();
+		call(rateLimited(200, 60, 31, Instant.now().plusSeconds(3600).getEpochSecond()));
+
+		scheduler.acquire(Priority.BACKGROUND).block(BLOCK);
+
+		assertThatThrownBy(() -> scheduler.acquire(Priority.BACKGROUND).block(BLOCK))
+				.isInstanceOf(IllegalStateException.class);
+		assertThat(remaining()).isEqualTo(30);
+	}
+
+	@Test
+	void releasesWaitingCallsWhenTheWindowResets() {
+		start();
+		call(rateLimited(200, 60, 0, Instant.now().plusSeconds(1).getEpochSecond()));
+		assertThat(remaining()).isZero();
+
+		scheduler.acquire(Priority.INTERACTIVE).block(BLOCK);
+
+		assertThat(remaining()).isEqualTo(59);
+	}
+
+	@Test
+	void givesUpAfterTheConfiguredWait() {
+		integrationConfig.getGithub().setRateLimitMaxWait(200);
+		start();
+		call(rateLimited(200, 60, 0, Instant.now().plusSeconds(3600).getEpochSecond()));
+
+		assertThatThrownBy(() -> scheduler.acquire(Priority.INTERACTIVE).block(BLOCK))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("exhausted");
+		assertThat(meterRegistry.get("github.ratelimit.queue.depth").tag("priority", "INTERACTIVE").gauge().value())
+				.isZero();
+	}
+
+	private void start() {
+		scheduler = new GitHubRateLimitScheduler(integrationConfig, meterRegistry);
+		webClient = clientConfig.gitHubWebClient(WebClient.builder(), integrationConfig, connectionProvider, scheduler);
+	}
+
+	// Takes a token and sends one request, the way GitHubApiClient does
+	private void call(MockResponse response) {
+		server.enqueue(response);
+		scheduler.acquire(Priority.INTERACTIVE)
+				.then(webClient.get().uri("/rate_limit").exchangeToMono(clientResponse -> clientResponse.releaseBody()))
+				.block(BLOCK);
+	}
+
+	private double remaining() {
+		return meterRegistry.get("github.ratelimit.remaining").gauge().value();
+	}
+
+	private static MockResponse rateLimited(int status, long limit, long remaining, long reset) {
+		return new MockResponse().setResponseCode(status)
+				.setHeader("X-RateLimit-Limit", limit)
+				.setHeader("X-RateLimit-Remaining", remaining)
+				.setHeader("X-RateLimit-Reset", reset);
+	}
+
+}
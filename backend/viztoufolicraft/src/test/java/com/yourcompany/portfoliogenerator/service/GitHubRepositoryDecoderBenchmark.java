@@ -0,0 +1,88 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes a page of the repository list with {@link GitHubRepositoryDecoder} and, as the
+ * baseline, with plain Jackson data binding. Pages are built from the recorded repositories
+ * in {@code github/user-repos.json}, repeated up to the page size.
+ * <p>
+ * Not part of the test run; start it from the IDE or with {@code main} on the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GitHubRepositoryDecoderBenchmark {
+
+	// 100 is the largest page GitHub serves
+	@Param({"30", "100"})
+	private int pageSize;
+
+	private ObjectMapper objectMapper;
+
+	private GitHubRepositoryDecoder decoder;
+
+	private byte[] page;
+
+	@Setup
+	public void setUp() throws IOException {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		decoder = new GitHubRepositoryDecoder(objectMapper);
+
+		ArrayNode recorded;
+		try (InputStream in = GitHubRepositoryDecoderBenchmark.class.getResourceAsStream("/github/user-repos.json")) {
+			recorded = (ArrayNode) objectMapper.readTree(in);
+		}
+		ArrayNode repositories = objectMapper.createArrayNode();
+		for (int i = 0; i < pageSize; i++) {
+			JsonNode repository = recorded.get(i % recorded.size());
+			repositories.add(repository);
+		}
+		page = objectMapper.writeValueAsBytes(repositories);
+	}
+
+	@Benchmark
+	public List<GitHubApiRepository> streamingDecoder() throws IOException {
+		return decoder.decode(new ByteArrayInputStream(page));
+	}
+
+	@Benchmark
+	public List<GitHubApiRepository> dataBinding() throws IOException {
+		return objectMapper.readValue(new ByteArrayInputStream(page), new TypeReference<>() {
+		});
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(GitHubRepositoryDecoderBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GitHubRepositoryDecoderTests {
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+	private final GitHubRepositoryDecoder decoder = new GitHubRepositoryDecoder(objectMapper);
+
+	@Test
+	void decodesARecordedPageLikeDataBinding() throws IOException {
+		List<GitHubApiRepository> expected;
+		try (InputStream in = recorded()) {
+			expected = objectMapper.readValue(in, new TypeReference<>() {
+			});
+		}
+
+		List<GitHubApiRepository> decoded;
+		try (InputStream in = recorded()) {
+			decoded = decoder.decode(in);
+		}
+
+		assertThat(decoded).hasSize(7).isEqualTo(expected);
+		assertThat(decoded.get(3).topics()).containsExactly("language-detection", "linguist", "syntax-highlighting");
+		assertThat(decoded.get(3).fork()).isTrue();
+	}
+
+	@Test
+	void skipsNestedObjectsAndArraysOfUnreadFields() throws IOException {
+		List<GitHubApiRepository> decoded = decode("""
+				[{"owner": {"login": "octocat", "name": "shadowed", "plan": {"name": "pro"}},
+				  "name": "spoon-knife",
+				  "permissions": {"admin": false, "name": "shadowed"},
+				  "license": {"key": "mit", "name": "MIT License"},
+				  "custom_properties": [{"name": "shadowed"}, [1, 2]],
+				  "stargazers_count": 12}]
+				""");
+
+		assertThat(decoded).singleElement().satisfies(repository -> {
+			assertThat(repository.name()).isEqualTo("spoon-knife");
+			assertThat(repository.stargazersCount()).isEqualTo(12);
+		});
+	}
+
+	@Test
+	void readsNullAndNonIntegerNumbersAsNull() throws IOException {
+		List<GitHubApiRepository> decoded = decode("""
+				[{"name": "a", "stargazers_count": null, "forks_count": "7"},
+				 {"name": "b"}]
+				""");
+
+		assertThat(decoded).extracting(GitHubApiRepository::stargazersCount).containsOnlyNulls();
+		assertThat(decoded).extracting(GitHubApiRepository::forksCount).containsOnlyNulls();
+	}
+
+	@Test
+	void readsTopicsAndIgnoresWhatIsNotAString() throws IOException {
+		List<GitHubApiRepository> decoded = decode("""
+				[{"name": "a", "topics": ["java", {"name": "nested"}, ["x"], null, 3, "spring"]},
+				 {"name": "b", "topics": null},
+				 {"name": "c", "topics": {"java": true}},
+				 {"name": "d"}]
+				""");
+
+		assertThat(decoded).extracting(GitHubApiRepository::topics).containsExactly(
+				List.of("java", "spring"), List.of(), List.of(), List.of());
+	}
+
+	@Test
+	void readsDatesAndFlags() throws IOException {
+		List<GitHubApiRepository> decoded = decode("""
+				[{"fork": true, "created_at": "2011-01-26T19:01:12Z", "pushed_at": null}]
+				""");
+
+		assertThat(decoded).singleElement().satisfies(repository -> {
+			assertThat(repository.fork()).isTrue();
+			assertThat(repository.createdAt()).isEqualTo(OffsetDateTime.parse("2011-01-26T19:01:12Z"));
+			assertThat(repository.pushedAt()).isNull();
+		});
+	}
+
+	@Test
+	void rejectsABodyThatIsNotAList() {
+		assertThatThrownBy(() -> decode("{\"message\": \"Not Found\"}")).isInstanceOf(JsonParseException.class);
+		assertThatThrownBy(() -> decode("[{\"name\": \"a\"}")).isInstanceOf(IOException.class);
+	}
+
+	private List<GitHubApiRepository> decode(String json) throws IOException {
+		return decoder.decode(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static InputStream recorded() {
+		return GitHubRepositoryDecoderTests.class.getResourceAsStream("/github/user-repos.json");
+	}
+
+}
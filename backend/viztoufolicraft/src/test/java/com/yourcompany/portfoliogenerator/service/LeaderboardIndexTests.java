@@ -0,0 +1,171 @@
+package com.yourcompany.portfoliogenerator.service;
+
+import com.yourcompany.portfoliogenerator.model.UserStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderboardIndexTests {
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@InjectMocks
+	private LeaderboardIndex index;
+
+	@Test
+	void usersWithEqualPointsShareARank() {
+		index.update(stats("a", 100, 1));
+		index.update(stats("b", 100, 3));
+		index.update(stats("c", 50, 9));
+		index.update(stats("d", 100, 1));
+
+		assertThat(index.rankOf("a")).isEqualTo(1);
+		assertThat(index.rankOf("b")).isEqualTo(1);
+		assertThat(index.rankOf("d")).isEqualTo(1);
+		// One more than the number of users with more points, not a dense rank
+		assertThat(index.rankOf("c")).isEqualTo(4);
+		assertThat(ranked()).containsExactly(entry("b", 1), entry("a", 1), entry("d", 1), entry("c", 4));
+	}
+
+	@Test
+	void tiesAreListedByLevelThenId() {
+		index.update(stats("b", 100, 1));
+		index.update(stats("a", 100, 1));
+		index.update(stats("c", 100, 2));
+
+		assertThat(index.top(3)).containsExactly("c", "a", "b");
+	}
+
+	@Test
+	void rankFollowsAnUpdate() {
+		index.update(stats("a", 300, 1));
+		index.update(stats("b", 200, 1));
+		index.update(stats("c", 100, 1));
+
+		index.update(stats("c", 250, 1));
+		assertThat(index.rankOf("c")).isEqualTo(2);
+		assertThat(index.rankOf("b")).isEqualTo(3);
+
+		index.update(stats("c", 300, 1));
+		assertThat(index.rankOf("c")).isEqualTo(1);
+		assertThat(index.rankOf("a")).isEqualTo(1);
+
+		index.update(stats("a", 10, 1));
+		assertThat(index.rankOf("a")).isEqualTo(3);
+		assertThat(index.top(3)).containsExactly("c", "b", "a");
+		assertThat(index.size()).isEqualTo(3);
+	}
+
+	@Test
+	void anUnchangedUpdateKeepsThePlace() {
+		index.update(stats("a", 100, 1));
+		index.update(stats("b", 100, 1));
+
+		index.update(stats("a", 100, 1));
+
+		assertThat(index.top(2)).containsExactly("a", "b");
+		assertThat(index.size()).isEqualTo(2);
+	}
+
+	@Test
+	void ignoresStatsWithoutAnIdAndUnknownIds() {
+		index.update(stats(null, 100, 1));
+
+		assertThat(index.size()).isZero();
+		assertThat(index.rankOf("missing")).isNull();
+		assertThat(index.around("missing", 2)).isEmpty();
+		assertThat(index.top(5)).isEmpty();
+	}
+
+	@Test
+	void aroundIsCentredInTheMiddle() {
+		indexTen();
+
+		assertThat(index.around("u5", 2)).containsExactly("u3", "u4", "u5", "u6", "u7");
+		assertThat(index.around("u5", 0)).containsExactly("u5");
+	}
+
+	@Test
+	void aroundIsCutOffAtTheTop() {
+		indexTen();
+
+		assertThat(index.around("u1", 2)).containsExactly("u1", "u2", "u3");
+		assertThat(index.around("u2", 2)).containsExactly("u1", "u2", "u3", "u4");
+	}
+
+	@Test
+	void aroundIsCutOffAtTheBottom() {
+		indexTen();
+
+		assertThat(index.around("u10", 2)).containsExactly("u8", "u9", "u10");
+		assertThat(index.around("u9", 2)).containsExactly("u7", "u8", "u9", "u10");
+	}
+
+	@Test
+	void aroundAWideRadiusIsEveryone() {
+		indexTen();
+
+		assertThat(index.around("u4", 50)).hasSize(10).startsWith("u1").endsWith("u10");
+		assertThat(index.top(50)).hasSize(10);
+	}
+
+	@Test
+	void aroundUsesListPositionNotSharedRank() {
+		index.update(stats("a", 100, 1));
+		index.update(stats("b", 100, 1));
+		index.update(stats("c", 100, 1));
+		index.update(stats("d", 50, 1));
+
+		assertThat(index.around("c", 1)).containsExactly("b", "c", "d");
+	}
+
+	@Test
+	void warmUpKeepsUpdatesRecordedBeforeIt() {
+		index.update(stats("a", 500, 1));
+		when(mongoTemplate.find(any(Query.class), eq(UserStats.class)))
+				.thenReturn(List.of(stats("a", 10, 1), stats("b", 20, 1)));
+
+		index.warmUp();
+
+		assertThat(index.size()).isEqualTo(2);
+		assertThat(index.top(2)).containsExactly("a", "b");
+	}
+
+	// u1 best to u10 worst
+	private void indexTen() {
+		for (int i = 10; i >= 1; i--) {
+			index.update(stats("u" + i, 1000 - i * 10, 1));
+		}
+	}
+
+	private Map<String, Integer> ranked() {
+		Map<String, Integer> ranks = new LinkedHashMap<>();
+		index.forEachRanked(ranks::put);
+		return ranks;
+	}
+
+	private static UserStats stats(String id, int totalPoints, int level) {
+		return UserStats.builder()
+				.id(id)
+				.totalPoints(totalPoints)
+				.level(level)
+				.build();
+	}
+
+}